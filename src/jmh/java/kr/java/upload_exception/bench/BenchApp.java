@@ -0,0 +1,61 @@
+package kr.java.upload_exception.bench;
+
+import kr.java.upload_exception.Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 벤치마크용 앱 실행 (웹 서버 없이, H2 메모리 DB, 임시 디렉토리)
+ *
+ * 서비스 Bean을 실제 설정 그대로(캐시, 트랜잭션, 메트릭 프록시 포함) 꺼내 쓰기 위함
+ */
+public final class BenchApp {
+
+    private BenchApp() {
+    }
+
+    /**
+     * @param overrides 추가/변경할 설정 (저장소 종류, S3 스텁 주소 등)
+     */
+    public static ConfigurableApplicationContext start(Map<String, Object> overrides) throws IOException {
+        Path work = Files.createTempDirectory("bench-");
+        Map<String, Object> props = new HashMap<>();
+        props.put("spring.profiles.active", "bench");
+        props.put("spring.datasource.url", "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("file.storage.type", "local");
+        props.put("file.upload-dir", work.resolve("uploads").toString());
+        props.put("file.cache.dir", work.resolve("cache").toString());
+        props.put("review.search.index-dir", work.resolve("search-index").toString());
+        props.put("review.search.rebuild-on-startup", "false");
+        props.put("logging.level.root", "WARN");
+        props.putAll(overrides);
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(props)
+                .run();
+    }
+
+    /**
+     * S3 저장소 설정 (로컬 스텁)
+     */
+    public static Map<String, Object> s3(S3StubServer stub, String bucket) {
+        Map<String, Object> props = new HashMap<>();
+        props.put("file.storage.type", "s3");
+        props.put("aws.s3.bucket", bucket);
+        props.put("spring.cloud.aws.s3.endpoint", stub.endpoint().toString());
+        props.put("spring.cloud.aws.s3.path-style-access-enabled", "true");
+        props.put("spring.cloud.aws.region.static", "us-east-1");
+        props.put("spring.cloud.aws.credentials.access-key", "stub");
+        props.put("spring.cloud.aws.credentials.secret-key", "stub");
+        return props;
+    }
+}
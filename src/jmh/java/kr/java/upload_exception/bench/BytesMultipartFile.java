@@ -0,0 +1,71 @@
+package kr.java.upload_exception.bench;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 벤치마크용 업로드 파일 (메모리의 바이트 배열)
+ *
+ * transferTo는 내용을 새로 씀 → 실제 요청에서 임시 파일을 옮기는(rename) 것보다 보수적인 값
+ */
+public class BytesMultipartFile implements MultipartFile {
+
+    private final byte[] data;
+    private final String contentType;
+
+    public BytesMultipartFile(byte[] data, String contentType) {
+        this.data = data;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getName() {
+        return "imageFile";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return "bench.jpg";
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return data.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return data.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return data;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(data);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.write(dest, data);
+    }
+}
@@ -0,0 +1,119 @@
+package kr.java.upload_exception.bench;
+
+import kr.java.upload_exception.service.FileStorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileStorageService.store 비용 (형식 검증 + 키 생성 + 저장)
+ *
+ * storage=local: 디스크에 쓰기 (sharded 경로), s3: 로컬 S3 스텁에 PUT (latencyMillis 지연)
+ * contentAddressed=true: 내용 해시 계산 + 존재 확인이 추가됨
+ * 매 호출 뒤 저장한 파일을 지움 (디스크가 차지 않도록, 삭제 시간은 측정에서 빠짐)
+ *
+ * 동시 호출 수는 JMH 스레드 수로 조절: ./gradlew jmh -Pjmh.includes=FileStorageBenchmark -Pjmh.threads=8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    @Param({"local", "s3"})
+    public String storage;
+
+    @Param({"102400", "5242880"}) // 100KB, 5MB
+    public int sizeBytes;
+
+    @Param({"false", "true"})
+    public boolean contentAddressed;
+
+    @Param({"10"})
+    public long latencyMillis;
+
+    private S3StubServer stub;
+    private ConfigurableApplicationContext app;
+    private FileStorageService fileStorageService;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        if (storage.equals("s3")) {
+            stub = new S3StubServer(latencyMillis);
+            props.putAll(BenchApp.s3(stub, "bench"));
+        }
+        props.put("file.storage.content-addressed", String.valueOf(contentAddressed));
+        app = BenchApp.start(props);
+        fileStorageService = app.getBean(FileStorageService.class);
+
+        data = new byte[sizeBytes];
+        ThreadLocalRandom.current().nextBytes(data);
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+        System.arraycopy(jpeg, 0, data, 0, jpeg.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    /**
+     * 스레드별 업로드 (내용 기반 저장에서 스레드끼리 같은 키가 되지 않도록 내용을 조금씩 바꿈)
+     */
+    @State(Scope.Thread)
+    public static class Upload {
+        byte[] data;
+        String key;
+
+        @Setup(Level.Trial)
+        public void setUp(FileStorageBenchmark bench) {
+            data = bench.data.clone();
+        }
+
+        @Setup(Level.Invocation)
+        public void next() {
+            // JPEG 시그니처 뒤 8바이트 → 매번 다른 내용
+            long value = ThreadLocalRandom.current().nextLong();
+            for (int i = 0; i < 8; i++) {
+                data[4 + i] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void cleanUp(FileStorageBenchmark bench) {
+            if (key != null) {
+                bench.fileStorageService.delete(key);
+                key = null;
+            }
+        }
+    }
+
+    @Benchmark
+    public String store(Upload upload) {
+        upload.key = fileStorageService.store(new BytesMultipartFile(upload.data, "image/jpeg"));
+        return upload.key;
+    }
+}
@@ -0,0 +1,85 @@
+package kr.java.upload_exception.bench;
+
+import kr.java.upload_exception.service.ImageContentValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 내용 검증 비용 측정
+ *
+ * 같은 데이터를 그대로 흘려보내는 경우(plainCopy)와
+ * 앞부분 형식 검증을 거친 뒤 흘려보내는 경우(validatedCopy)를 비교한다.
+ * 두 값의 차이가 업로드 한 건당 추가되는 비용.
+ *
+ * ./gradlew jmh -Pjmh.includes=ImageValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageValidationBenchmark {
+
+    @Param({"102400", "5242880"}) // 100KB, 5MB
+    public int sizeBytes;
+
+    @Param({"image/jpeg", "image/png"})
+    public String contentType;
+
+    private ImageContentValidator validator;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validator = new ImageContentValidator(10000, 25_000_000);
+        data = new byte[sizeBytes];
+        ThreadLocalRandom.current().nextBytes(data);
+        byte[] header = contentType.equals("image/png") ? pngHeader() : jpegHeader();
+        System.arraycopy(header, 0, data, 0, header.length);
+    }
+
+    @Benchmark
+    public long plainCopy() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(data)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public long validatedCopy() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(data)) {
+            return validator.validate(in, contentType).stream().transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static byte[] jpegHeader() {
+        return new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+    }
+
+    // 시그니처 + IHDR (1920x1080)
+    private static byte[] pngHeader() {
+        return new byte[]{
+                (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A,
+                0, 0, 0, 13, 'I', 'H', 'D', 'R',
+                0, 0, 0x07, (byte) 0x80, 0, 0, 0x04, 0x38
+        };
+    }
+}
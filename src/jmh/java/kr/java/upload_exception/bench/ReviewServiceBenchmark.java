@@ -0,0 +1,129 @@
+package kr.java.upload_exception.bench;
+
+import kr.java.upload_exception.model.dto.CursorPage;
+import kr.java.upload_exception.model.dto.ReviewSummary;
+import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.service.ReviewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리뷰 목록/상세 조회 비용 (H2, MySQL 호환 모드)
+ *
+ * reviewCount건을 넣어두고
+ * - firstPage: 첫 페이지 (목록 화면 기본)
+ * - deepPage: 앞쪽 pageDepth 페이지 중 임의의 커서 다음 페이지 (키셋이라 깊이와 관계없이 일정해야 함)
+ * - detail: 임의의 리뷰 상세
+ * cache=false면 조회 캐시를 끄고(review.cache.enabled=false) DB 조회 비용만 측정
+ *
+ * H2는 MySQL보다 빠르므로 절대값보다 변경 전후 비교용
+ * 동시 호출 수는 JMH 스레드 수로 조절: ./gradlew jmh -Pjmh.includes=ReviewServiceBenchmark -Pjmh.threads=8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewServiceBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"10000", "100000"})
+    public int reviewCount;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    @Param({"50"})
+    public int pageDepth;
+
+    private ConfigurableApplicationContext app;
+    private ReviewService reviewService;
+    private long minId;
+    private long maxId;
+    private final List<String> cursors = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        app = BenchApp.start(cache ? Map.of() : Map.of("review.cache.enabled", "false"));
+        reviewService = app.getBean(ReviewService.class);
+        seed(app.getBean(JdbcTemplate.class));
+
+        JdbcTemplate jdbcTemplate = app.getBean(JdbcTemplate.class);
+        minId = jdbcTemplate.queryForObject("select min(id) from review", Long.class);
+        maxId = jdbcTemplate.queryForObject("select max(id) from review", Long.class);
+
+        // 목록을 따라가며 커서 수집
+        CursorPage<ReviewSummary> page = reviewService.findPage(null, null);
+        for (int i = 0; i < pageDepth && page.getNextCursor() != null; i++) {
+            cursors.add(page.getNextCursor());
+            page = reviewService.findPage(page.getNextCursor(), null);
+        }
+    }
+
+    /**
+     * JPA를 거치지 않고 배치로 넣음 (준비 시간 단축)
+     * 작성 시각은 1분 간격으로 과거부터 → 목록 순서가 ID 순서와 같음
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Instant start = Instant.now().minusSeconds(60L * reviewCount);
+        String content = "배송이 빠르고 포장도 꼼꼼했습니다. 색상은 사진과 거의 같고 사이즈도 잘 맞아요. ".repeat(8);
+        for (int from = 0; from < reviewCount; from += BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, reviewCount); i++) {
+                rows.add(new Object[]{
+                        "리뷰 제목 " + i,
+                        content,
+                        1 + i % 5,
+                        "/images/" + i + ".jpg",
+                        Timestamp.from(start.plusSeconds(60L * i))});
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into review (title, content, rating, image_url, created_at) values (?, ?, ?, ?, ?)",
+                    rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public CursorPage<ReviewSummary> firstPage() {
+        return reviewService.findPage(null, null);
+    }
+
+    @Benchmark
+    public CursorPage<ReviewSummary> deepPage() {
+        String cursor = cursors.get(ThreadLocalRandom.current().nextInt(cursors.size()));
+        return reviewService.findPage(cursor, null);
+    }
+
+    @Benchmark
+    public Review detail() {
+        return reviewService.findById(ThreadLocalRandom.current().nextLong(minId, maxId + 1));
+    }
+}
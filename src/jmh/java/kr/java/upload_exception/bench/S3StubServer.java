@@ -0,0 +1,296 @@
+package kr.java.upload_exception.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 벤치마크/부하 테스트용 인메모리 S3 호환 서버 (path-style)
+ *
+ * 지원: PutObject, GetObject, HeadObject, DeleteObject, DeleteObjects, 멀티파트(Create/UploadPart/Complete/Abort)
+ * 서명 검증은 하지 않음. 실제 S3의 네트워크 지연은 latencyMillis로 흉내낼 수 있음
+ */
+public class S3StubServer implements AutoCloseable {
+
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+    private static final Pattern OBJECT_KEY = Pattern.compile("<Key>([^<]*)</Key>");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latencyMillis;
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    private record StoredObject(byte[] data, String contentType, String eTag) {
+    }
+
+    public S3StubServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * @param latencyMillis 요청마다 추가할 지연 (0이면 없음)
+     */
+    public S3StubServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    public URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    /**
+     * 이 서버를 바라보는 S3Client
+     */
+    public S3Client client() {
+        return S3Client.builder()
+                .endpointOverride(endpoint())
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("stub", "stub")))
+                .forcePathStyle(true)
+                .build();
+    }
+
+    public int objectCount() {
+        return objects.size();
+    }
+
+    public void clear() {
+        objects.clear();
+        uploads.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            // /{bucket}/{key...}
+            String path = exchange.getRequestURI().getPath();
+            int slash = path.indexOf('/', 1);
+            String key = slash < 0 ? "" : path.substring(slash + 1);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    byte[] body = readBody(exchange);
+                    String eTag = md5(body);
+                    if (query.containsKey("uploadId")) {
+                        Map<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+                        if (parts == null) {
+                            send(exchange, 404, null);
+                            return;
+                        }
+                        parts.put(Integer.parseInt(query.get("partNumber")), body);
+                    } else {
+                        objects.put(key, new StoredObject(body,
+                                exchange.getRequestHeaders().getFirst("Content-Type"), eTag));
+                    }
+                    exchange.getResponseHeaders().set("ETag", eTag);
+                    send(exchange, 200, null);
+                }
+                case "POST" -> {
+                    if (query.containsKey("uploads")) {
+                        String uploadId = UUID.randomUUID().toString();
+                        uploads.put(uploadId, new ConcurrentHashMap<>());
+                        send(exchange, 200, "<InitiateMultipartUploadResult><Bucket>stub</Bucket>"
+                                + "<Key>" + key + "</Key><UploadId>" + uploadId + "</UploadId>"
+                                + "</InitiateMultipartUploadResult>");
+                    } else if (query.containsKey("uploadId")) {
+                        completeUpload(exchange, key, query.get("uploadId"));
+                    } else if (query.containsKey("delete")) {
+                        deleteObjects(exchange);
+                    } else {
+                        send(exchange, 400, null);
+                    }
+                }
+                case "GET", "HEAD" -> {
+                    StoredObject object = objects.get(key);
+                    if (object == null) {
+                        boolean head = exchange.getRequestMethod().equals("HEAD"); // HEAD 응답에는 본문 없음
+                        send(exchange, 404, head ? null : "<Error><Code>NoSuchKey</Code></Error>");
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("Content-Type",
+                            object.contentType() != null ? object.contentType() : "application/octet-stream");
+                    exchange.getResponseHeaders().set("ETag", object.eTag());
+                    if (exchange.getRequestMethod().equals("HEAD")) {
+                        exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.data().length));
+                        exchange.sendResponseHeaders(200, -1);
+                        return;
+                    }
+                    exchange.sendResponseHeaders(200, object.data().length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(object.data());
+                    }
+                }
+                case "DELETE" -> {
+                    if (query.containsKey("uploadId")) {
+                        uploads.remove(query.get("uploadId"));
+                    } else {
+                        objects.remove(key);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> send(exchange, 405, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void completeUpload(HttpExchange exchange, String key, String uploadId) throws IOException {
+        Map<Integer, byte[]> parts = uploads.remove(uploadId);
+        String request = new String(readBody(exchange), StandardCharsets.UTF_8);
+        if (parts == null) {
+            send(exchange, 404, "<Error><Code>NoSuchUpload</Code></Error>");
+            return;
+        }
+        // 요청에 나열된 파트 번호 순서대로 이어 붙임
+        TreeMap<Integer, byte[]> ordered = new TreeMap<>();
+        Matcher matcher = PART_NUMBER.matcher(request);
+        while (matcher.find()) {
+            int number = Integer.parseInt(matcher.group(1));
+            ordered.put(number, parts.get(number));
+        }
+        ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+        for (byte[] part : ordered.values()) {
+            if (part == null) {
+                send(exchange, 400, "<Error><Code>InvalidPart</Code></Error>");
+                return;
+            }
+            assembled.write(part);
+        }
+        byte[] data = assembled.toByteArray();
+        String eTag = md5(data);
+        objects.put(key, new StoredObject(data, null, eTag));
+        send(exchange, 200, "<CompleteMultipartUploadResult><Bucket>stub</Bucket><Key>" + key
+                + "</Key><ETag>" + eTag + "</ETag></CompleteMultipartUploadResult>");
+    }
+
+    // 일괄 삭제: quiet 모드로 가정하고 빈 결과(= 모두 성공) 반환
+    private void deleteObjects(HttpExchange exchange) throws IOException {
+        String request = new String(readBody(exchange), StandardCharsets.UTF_8);
+        Matcher matcher = OBJECT_KEY.matcher(request);
+        while (matcher.find()) {
+            objects.remove(matcher.group(1));
+        }
+        send(exchange, 200, "<DeleteResult></DeleteResult>");
+    }
+
+    /**
+     * 요청 본문 읽기
+     * SDK가 aws-chunked 인코딩(체크섬 트레일러)으로 보내는 경우 청크를 풀어서 반환
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream in = exchange.getRequestBody()) {
+            raw = in.readAllBytes();
+        }
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        String sha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        boolean chunked = (encoding != null && encoding.contains("aws-chunked"))
+                || (sha != null && sha.startsWith("STREAMING-"));
+        return chunked ? decodeAwsChunked(raw) : raw;
+    }
+
+    // 형식: {hex 크기}[;chunk-signature=...]\r\n{데이터}\r\n ... 0\r\n{트레일러}\r\n\r\n
+    private byte[] decodeAwsChunked(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+        int pos = 0;
+        while (pos < raw.length) {
+            int lineEnd = indexOfCrlf(raw, pos);
+            String header = new String(raw, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            int size = Integer.parseInt(semicolon < 0 ? header.trim() : header.substring(0, semicolon).trim(), 16);
+            if (size == 0) {
+                break;
+            }
+            out.write(raw, lineEnd + 2, size);
+            pos = lineEnd + 2 + size + 2;
+        }
+        return out.toByteArray();
+    }
+
+    private int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return data.length;
+    }
+
+    private void send(HttpExchange exchange, int status, String xml) throws IOException {
+        if (xml == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) {
+                query.put(pair, "");
+            } else {
+                query.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return query;
+    }
+
+    private String md5(byte[] data) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package kr.java.upload_exception.bench;
+
+import kr.java.upload_exception.service.S3MultipartUploader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단일 PUT vs 멀티파트(병렬 파트) 업로드 비교
+ *
+ * 로컬 S3 스텁에 요청당 지연(latencyMillis)을 주어 느린 연결을 흉내낸다.
+ * 지연이 있을수록 파트 병렬 전송의 이점이 커진다.
+ *
+ * ./gradlew jmh -Pjmh.includes=S3UploadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3UploadBenchmark {
+
+    private static final String BUCKET = "bench";
+    private static final int PART_SIZE = S3MultipartUploader.MIN_PART_SIZE;
+
+    @Param({"10485760", "52428800"}) // 10MB, 50MB
+    public int sizeBytes;
+
+    @Param({"0", "20"})
+    public long latencyMillis;
+
+    @Param({"4"})
+    public int parallelism;
+
+    private S3StubServer stub;
+    private S3Client s3Client;
+    private ExecutorService executor;
+    private S3MultipartUploader uploader;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stub = new S3StubServer(latencyMillis);
+        s3Client = stub.client();
+        executor = Executors.newFixedThreadPool(parallelism);
+        uploader = new S3MultipartUploader(s3Client, executor, PART_SIZE, parallelism);
+        data = new byte[sizeBytes];
+        ThreadLocalRandom.current().nextBytes(data);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        s3Client.close();
+        executor.shutdownNow();
+        stub.close();
+    }
+
+    @Benchmark
+    public void singlePut() {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(BUCKET)
+                        .key("single")
+                        .contentType("image/jpeg")
+                        .contentLength((long) data.length)
+                        .build(),
+                RequestBody.fromInputStream(new ByteArrayInputStream(data), data.length));
+    }
+
+    @Benchmark
+    public long multipart() {
+        return uploader.upload(BUCKET, "multipart", "image/jpeg", new ByteArrayInputStream(data));
+    }
+}
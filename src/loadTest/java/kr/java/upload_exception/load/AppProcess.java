@@ -0,0 +1,184 @@
+package kr.java.upload_exception.load;
+
+import kr.java.upload_exception.Application;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 부하 테스트 대상 앱을 별도 JVM으로 실행
+ *
+ * 부하를 주는 쪽(HTTP 클라이언트, S3 스텁)과 같은 JVM이면 힙/스레드/GC/RSS에 클라이언트 몫이 섞이므로 분리
+ * - 클래스패스는 이 프로세스와 같음 (부하 테스트 클래스/설정은 제외)
+ * - 설정은 명령줄 인자(--key=value)로 전달, 포트는 비어 있는 포트를 골라 지정
+ * - 앱 로그는 {로그 디렉토리}/{이름}-app.log
+ * - 서버 JVM 지표는 /actuator/prometheus, RSS는 /proc/{pid}/status (리눅스, 그 외에는 0)
+ */
+class AppProcess implements AutoCloseable {
+
+    private static final String SERVER_HEAP = "-Xmx1g";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Process process;
+    private final int port;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private AppProcess(Process process, int port) {
+        this.process = process;
+        this.port = port;
+    }
+
+    /**
+     * 서버 JVM 지표 한 번 수집 값
+     * @param heapUsedBytes 사용 중인 힙 (모든 영역 합계)
+     * @param liveThreads   살아 있는 플랫폼 스레드 수
+     * @param gcCount       GC 일시 정지 누적 횟수
+     * @param gcSeconds     GC 일시 정지 누적 시간
+     * @param rssBytes      프로세스 RSS
+     */
+    record Snapshot(long heapUsedBytes, int liveThreads, long gcCount, double gcSeconds, long rssBytes) {
+    }
+
+    /**
+     * 앱 실행 후 /actuator/health가 응답할 때까지 대기
+     */
+    static AppProcess start(String name, Map<String, String> props, Path logDir) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add(SERVER_HEAP);
+        command.add("-cp");
+        command.add(serverClasspath());
+        command.add(Application.class.getName());
+        command.add("--server.port=" + port);
+        props.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Files.createDirectories(logDir);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(name + "-app.log").toFile())
+                .start();
+        AppProcess app = new AppProcess(process, port);
+        try {
+            app.awaitReady(logDir.resolve(name + "-app.log"));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    int port() {
+        return port;
+    }
+
+    Snapshot snapshot() throws IOException, InterruptedException {
+        String body = client.send(HttpRequest.newBuilder(uri("/actuator/prometheus"))
+                        .timeout(Duration.ofSeconds(5))
+                        .build(), HttpResponse.BodyHandlers.ofString())
+                .body();
+        double heap = 0;
+        double threads = 0;
+        double gcCount = 0;
+        double gcSeconds = 0;
+        for (String line : body.split("\n")) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int space = line.lastIndexOf(' ');
+            String series = line.substring(0, space);
+            double value = Double.parseDouble(line.substring(space + 1));
+            String metric = series.contains("{") ? series.substring(0, series.indexOf('{')) : series;
+            switch (metric) {
+                case "jvm_memory_used_bytes" -> {
+                    if (series.contains("area=\"heap\"")) {
+                        heap += value;
+                    }
+                }
+                case "jvm_threads_live_threads" -> threads = value;
+                case "jvm_gc_pause_seconds_count" -> gcCount += value;
+                case "jvm_gc_pause_seconds_sum" -> gcSeconds += value;
+                default -> {
+                }
+            }
+        }
+        return new Snapshot((long) heap, (int) threads, (long) gcCount, gcSeconds, rssBytes());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy(); // SIGTERM → 정상 종료
+        if (!process.waitFor(SHUTDOWN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private void awaitReady(Path log) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("앱이 시작 중에 종료됨 (로그: " + log + ")");
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri("/actuator/health"))
+                        .timeout(Duration.ofSeconds(2))
+                        .build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 아직 포트가 열리지 않음
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("앱 시작 시간 초과 (로그: " + log + ")");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    // 리눅스에서만 (/proc/{pid}/status의 VmRSS), 그 외에는 0
+    private long rssBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // 지원하지 않는 OS
+        }
+        return 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // 이 프로세스의 클래스패스에서 부하 테스트 출력(build/classes/java/loadTest, build/resources/loadTest)만 뺌
+    private static String serverClasspath() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> !Path.of(entry).getFileName().toString().equals("loadTest"))
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+}
@@ -0,0 +1,216 @@
+package kr.java.upload_exception.load;
+
+import kr.java.upload_exception.bench.S3StubServer;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 플랫폼 스레드 vs 가상 스레드 부하 테스트
+ *
+ * 앱을 별도 JVM으로 띄우고(AppProcess, H2, S3는 이 프로세스의 지연을 준 로컬 스텁) GET /images/{key} 를 동시에 호출한다.
+ * 디스크 캐시를 끄므로 요청마다 S3FileController → S3 호출에서 latencyMillis 동안 대기
+ * → 요청 스레드가 I/O 대기로 묶이는 상황을 재현
+ *
+ * 측정: 처리량(req/s), 응답 시간(p50/p99), 오류 수
+ *       + 서버 JVM의 최대 스레드 수, 최대 힙 사용량, RSS(리눅스) - 측정 구간 동안 0.5초마다 수집한 최댓값
+ * 결과는 {결과 디렉토리}/{mode}.json (앱 로그는 {mode}-app.log)
+ *
+ * ./gradlew loadTest  (인자: mode concurrency durationSeconds latencyMillis resultDir)
+ */
+@Slf4j
+public class ThreadModelLoadTest {
+
+    private static final int OBJECT_COUNT = 100;
+    private static final int OBJECT_SIZE = 64 * 1024;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        long latencyMillis = args.length > 3 ? Long.parseLong(args[3]) : 50;
+        Path resultDir = Path.of(args.length > 4 ? args[4] : "build/load-results");
+
+        try (S3StubServer stub = new S3StubServer(latencyMillis)) {
+            seed(stub);
+            try (AppProcess app = start(mode, stub, mode.equals("virtual"), resultDir)) {
+                Result result = run(app, concurrency, Duration.ofSeconds(durationSeconds));
+                String json = result.toJson(mode, concurrency, durationSeconds, latencyMillis);
+                Path file = resultDir.resolve(mode + ".json");
+                Files.writeString(file, json, StandardCharsets.UTF_8);
+                log.info("결과 기록: {} {}", file, json);
+            }
+        }
+    }
+
+    private static void seed(S3StubServer stub) {
+        byte[] data = new byte[OBJECT_SIZE];
+        ThreadLocalRandom.current().nextBytes(data);
+        try (S3Client client = stub.client()) {
+            for (int i = 0; i < OBJECT_COUNT; i++) {
+                client.putObject(PutObjectRequest.builder()
+                                .bucket("load")
+                                .key(key(i))
+                                .contentType("image/jpeg")
+                                .build(),
+                        RequestBody.fromBytes(data));
+            }
+        }
+    }
+
+    private static AppProcess start(String mode, S3StubServer stub, boolean virtualThreads, Path logDir)
+            throws IOException, InterruptedException {
+        Path work = Files.createTempDirectory("load-test-");
+        Map<String, String> props = new HashMap<>();
+        props.put("spring.profiles.active", "loadtest");
+        props.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        props.put("spring.datasource.url", "jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("file.storage.type", "s3");
+        props.put("file.upload-dir", work.resolve("uploads").toString());
+        props.put("file.cache.dir", work.resolve("cache").toString());
+        props.put("review.search.index-dir", work.resolve("search-index").toString());
+        props.put("file.cache.max-bytes", "0"); // 디스크 캐시 끔 → 모든 요청이 S3 호출
+        props.put("file.s3.max-connections", "2000"); // 연결 풀이 먼저 한계가 되지 않도록
+        props.put("aws.s3.bucket", "load");
+        props.put("spring.cloud.aws.s3.endpoint", stub.endpoint().toString());
+        props.put("spring.cloud.aws.s3.path-style-access-enabled", "true");
+        props.put("spring.cloud.aws.region.static", "us-east-1");
+        props.put("spring.cloud.aws.credentials.access-key", "stub");
+        props.put("spring.cloud.aws.credentials.secret-key", "stub");
+        return AppProcess.start(mode, props, logDir);
+    }
+
+    private static Result run(AppProcess app, int concurrency, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        int port = app.port();
+
+        AtomicBoolean measuring = new AtomicBoolean(false);
+        AtomicBoolean stop = new AtomicBoolean(false);
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        int[] counts = new int[concurrency];
+
+        // 부하를 주는 쪽은 가상 스레드 (클라이언트가 병목이 되지 않도록)
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            long[] samples = new long[1 << 16];
+            latencies.add(samples);
+            int worker = w;
+            futures.add(workers.submit(() -> {
+                int i = worker;
+                while (!stop.get()) {
+                    HttpRequest request = HttpRequest.newBuilder(
+                                    URI.create("http://127.0.0.1:" + port + "/images/" + key(i++ % OBJECT_COUNT)))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        ok = response.statusCode() == 200 && response.body().length == OBJECT_SIZE;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (!measuring.get()) {
+                        continue;
+                    }
+                    if (!ok) {
+                        errors.incrementAndGet();
+                    } else if (counts[worker] < samples.length) {
+                        samples[counts[worker]++] = System.nanoTime() - start;
+                    }
+                }
+            }));
+        }
+
+        Thread.sleep(WARMUP.toMillis());
+        measuring.set(true);
+        long startedAt = System.nanoTime();
+        long peakHeap = 0;
+        long peakRss = 0;
+        int peakThreads = 0;
+        while (System.nanoTime() - startedAt < duration.toNanos()) {
+            Thread.sleep(500);
+            AppProcess.Snapshot snapshot = app.snapshot();
+            peakHeap = Math.max(peakHeap, snapshot.heapUsedBytes());
+            peakRss = Math.max(peakRss, snapshot.rssBytes());
+            peakThreads = Math.max(peakThreads, snapshot.liveThreads());
+        }
+        measuring.set(false);
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        stop.set(true);
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies.get(w), 0, all, pos, counts[w]);
+            pos += counts[w];
+        }
+        Arrays.sort(all);
+        return new Result(total / seconds, percentile(all, 0.50), percentile(all, 0.99), errors.get(),
+                peakThreads, peakHeap, peakRss);
+    }
+
+    private static String key(int i) {
+        return "object-" + i + ".jpg";
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))] / 1e6;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, long errors,
+                          int peakThreads, long peakHeapBytes, long peakRssBytes) {
+
+        String toJson(String mode, int concurrency, int durationSeconds, long latencyMillis) {
+            return String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"concurrency\":%d,\"durationSeconds\":%d,\"s3LatencyMillis\":%d,"
+                            + "\"throughput\":%.1f,\"p50Millis\":%.2f,\"p99Millis\":%.2f,\"errors\":%d,"
+                            + "\"peakThreads\":%d,\"peakHeapMb\":%.1f,\"peakRssMb\":%.1f}",
+                    mode, concurrency, durationSeconds, latencyMillis, throughput, p50Millis, p99Millis, errors,
+                    peakThreads, peakHeapBytes / 1048576.0, peakRssBytes / 1048576.0);
+        }
+    }
+}
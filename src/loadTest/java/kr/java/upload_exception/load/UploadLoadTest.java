@@ -0,0 +1,356 @@
+package kr.java.upload_exception.load;
+
+import kr.java.upload_exception.bench.S3StubServer;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 업로드 포함 전체 흐름 부하 테스트 (저장소 종류별)
+ *
+ * 앱을 별도 JVM으로 띄우고(AppProcess, H2, S3는 이 프로세스의 지연을 준 로컬 스텁) 아래 요청을 정해진 비율로 섞어서 보낸다.
+ * - upload: POST /reviews (multipart imageFile) → 형식 검증, ReviewService.create, 저장소, DB
+ * - list:   GET /reviews
+ * - image:  GET /images/{key} (미리 올려둔 이미지)
+ *
+ * 도착률 고정 (초당 rate건): 응답을 기다리지 않고 정해진 시각에 요청을 보냄
+ * → 서버가 느려지면 대기 중인 요청이 쌓여 응답 시간에 그대로 드러남 (실제 사용자 몰림과 같은 조건)
+ * 응답 시간은 "보내기로 한 시각"부터 계산 (클라이언트 쪽 지연에 가려지지 않도록)
+ *
+ * 측정: 요청 종류별 처리량, p50/p99, 오류 수
+ *       + 서버 JVM의 최대 힙(0.5초마다 수집), 측정 구간의 GC 일시 정지 횟수/시간 (/actuator/prometheus)
+ * 결과는 {결과 디렉토리}/upload-{storage}.json (앱 로그는 upload-{storage}-app.log)
+ *
+ * ./gradlew uploadLoadTest  (인자: storage ratePerSecond durationSeconds mix s3LatencyMillis imagePixels resultDir)
+ * mix 예: upload=10,list=60,image=30 (비율)
+ */
+@Slf4j
+public class UploadLoadTest {
+
+    private static final int SEED_IMAGES = 50;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String BOUNDARY = "----load-test-" + UUID.randomUUID();
+
+    public static void main(String[] args) throws Exception {
+        String storage = args.length > 0 ? args[0] : "local";
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        Map<String, Integer> mix = parseMix(args.length > 3 ? args[3] : "upload=10,list=60,image=30");
+        long latencyMillis = args.length > 4 ? Long.parseLong(args[4]) : 20;
+        int imagePixels = args.length > 5 ? Integer.parseInt(args[5]) : 1200;
+        Path resultDir = Path.of(args.length > 6 ? args[6] : "build/load-results");
+
+        byte[] image = jpeg(imagePixels);
+        S3StubServer stub = storage.equals("s3") ? new S3StubServer(latencyMillis) : null;
+        try {
+            Path work = Files.createTempDirectory("upload-load-test-");
+            List<String> imageUrls = seedImages(work, stub, image);
+            try (AppProcess app = start(storage, stub, work, resultDir)) {
+                Report report = run(app, rate, Duration.ofSeconds(durationSeconds), mix, image, imageUrls);
+                String json = report.toJson(storage, rate, durationSeconds, mix, latencyMillis, image.length);
+                Path file = resultDir.resolve("upload-" + storage + ".json");
+                Files.writeString(file, json, StandardCharsets.UTF_8);
+                log.info("결과 기록: {} {}", file, json);
+            }
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    private static AppProcess start(String storage, S3StubServer stub, Path work, Path logDir)
+            throws IOException, InterruptedException {
+        Map<String, String> props = new HashMap<>();
+        props.put("spring.profiles.active", "loadtest");
+        props.put("spring.datasource.url", "jdbc:h2:mem:upload-load;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("file.storage.type", storage);
+        props.put("file.upload-dir", work.resolve("uploads").toString());
+        props.put("file.cache.dir", work.resolve("cache").toString());
+        props.put("review.search.index-dir", work.resolve("search-index").toString());
+        props.put("logging.level.root", "WARN");
+        if (stub != null) {
+            props.put("aws.s3.bucket", "load");
+            props.put("spring.cloud.aws.s3.endpoint", stub.endpoint().toString());
+            props.put("spring.cloud.aws.s3.path-style-access-enabled", "true");
+            props.put("spring.cloud.aws.region.static", "us-east-1");
+            props.put("spring.cloud.aws.credentials.access-key", "stub");
+            props.put("spring.cloud.aws.credentials.secret-key", "stub");
+        }
+        return AppProcess.start("upload-" + storage, props, logDir);
+    }
+
+    /**
+     * 조회용 이미지 (앱을 띄우기 전에 저장소에 직접 저장 → 업로드 요청 결과와 섞이지 않음)
+     * 로컬: 업로드 디렉토리의 예전 평면 배치(uploads/키)에 저장 (앱이 그대로 읽음)
+     * S3: 스텁 버킷에 저장
+     */
+    private static List<String> seedImages(Path work, S3StubServer stub, byte[] image) throws IOException {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < SEED_IMAGES; i++) {
+            keys.add(UUID.randomUUID() + ".jpg");
+        }
+        if (stub != null) {
+            try (S3Client client = stub.client()) {
+                for (String key : keys) {
+                    client.putObject(PutObjectRequest.builder()
+                                    .bucket("load")
+                                    .key(key)
+                                    .contentType("image/jpeg")
+                                    .build(),
+                            RequestBody.fromBytes(image));
+                }
+            }
+        } else {
+            Path uploads = Files.createDirectories(work.resolve("uploads"));
+            for (String key : keys) {
+                Files.write(uploads.resolve(key), image);
+            }
+        }
+        return keys.stream().map(key -> "/images/" + key).toList();
+    }
+
+    private static Report run(AppProcess app, int rate, Duration duration, Map<String, Integer> mix,
+                              byte[] image, List<String> imageUrls) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String base = "http://127.0.0.1:" + app.port();
+        byte[] uploadBody = multipart(image);
+
+        // 비율 → 요청 종류 순서표 (예: 10/60/30 → 100칸), 한 종류가 몰리지 않게 섞음 (매번 같은 순서)
+        List<String> schedule = new ArrayList<>();
+        mix.forEach((type, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(type);
+            }
+        });
+        Collections.shuffle(schedule, new Random(42));
+
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = new LinkedHashMap<>();
+        Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        for (String type : mix.keySet()) {
+            latencies.put(type, new ConcurrentLinkedQueue<>());
+            errors.put(type, new AtomicLong());
+        }
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        // 서버 지표는 별도 스레드에서 수집 (요청 발송 간격에 영향이 없도록)
+        ExecutorService sampler = Executors.newVirtualThreadPerTaskExecutor();
+        AtomicBoolean sending = new AtomicBoolean(true);
+        Future<long[]> sampled = sampler.submit(() -> sample(app, warmupEnd, sending));
+
+        // 요청마다 가상 스레드 (느린 응답이 다음 요청 발송을 막지 않도록)
+        ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+        long next = System.nanoTime();
+        for (long seq = 0; ; seq++) {
+            long now = System.nanoTime();
+            if (next > now) {
+                TimeUnit.NANOSECONDS.sleep(next - now);
+            }
+            long scheduledAt = next;
+            if (scheduledAt >= end) {
+                break;
+            }
+            boolean measured = scheduledAt >= warmupEnd;
+
+            String type = schedule.get((int) (seq % schedule.size()));
+            HttpRequest request = switch (type) {
+                case "upload" -> HttpRequest.newBuilder(URI.create(base + "/reviews"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(uploadBody))
+                        .timeout(TIMEOUT)
+                        .build();
+                case "list" -> HttpRequest.newBuilder(URI.create(base + "/reviews")).timeout(TIMEOUT).build();
+                case "image" -> HttpRequest.newBuilder(URI.create(base
+                                + imageUrls.get(ThreadLocalRandom.current().nextInt(imageUrls.size()))))
+                        .timeout(TIMEOUT)
+                        .build();
+                default -> throw new IllegalArgumentException("알 수 없는 요청 종류: " + type);
+            };
+            senders.submit(() -> {
+                boolean ok;
+                try {
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    // 등록 성공은 목록으로 리다이렉트 (200이면 폼으로 돌아온 것 = 실패)
+                    ok = type.equals("upload") ? response.statusCode() == 302 : response.statusCode() == 200;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (!measured) {
+                    return;
+                }
+                if (ok) {
+                    latencies.get(type).add(System.nanoTime() - scheduledAt);
+                } else {
+                    errors.get(type).incrementAndGet();
+                }
+            });
+            next += intervalNanos;
+        }
+        // 이미 보낸 요청은 끝까지 기다림 (늦은 응답도 결과에 포함)
+        senders.shutdown();
+        senders.awaitTermination(TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        sending.set(false);
+        long[] server = sampled.get(); // [최대 힙, GC 횟수, GC 시간(ms)]
+        sampler.shutdown();
+
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String type : mix.keySet()) {
+            long[] sorted = latencies.get(type).stream().mapToLong(Long::longValue).sorted().toArray();
+            results.put(type, new Result(sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    errors.get(type).get()));
+        }
+        return new Report(results, server[0], server[1], server[2]);
+    }
+
+    /**
+     * 측정 구간의 서버 JVM 지표: [최대 힙, GC 일시 정지 횟수, GC 일시 정지 시간(ms)]
+     * 측정 시작 시각부터 마지막 응답까지 0.5초마다 수집, GC는 시작/끝 누적값의 차이
+     */
+    private static long[] sample(AppProcess app, long from, AtomicBoolean sending) throws Exception {
+        long now = System.nanoTime();
+        if (from > now) {
+            TimeUnit.NANOSECONDS.sleep(from - now);
+        }
+        AppProcess.Snapshot before = app.snapshot();
+        long peakHeap = before.heapUsedBytes();
+        AppProcess.Snapshot last = before;
+        while (sending.get()) {
+            Thread.sleep(500);
+            last = app.snapshot();
+            peakHeap = Math.max(peakHeap, last.heapUsedBytes());
+        }
+        return new long[]{peakHeap, last.gcCount() - before.gcCount(),
+                Math.round((last.gcSeconds() - before.gcSeconds()) * 1000)};
+    }
+
+    /**
+     * multipart/form-data 본문 (리뷰 등록 폼과 같은 필드)
+     */
+    private static byte[] multipart(byte[] image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.length + 1024);
+        for (String[] field : new String[][]{{"title", "부하 테스트 리뷰"}, {"content", "부하 테스트로 등록한 리뷰입니다."}, {"rating", "4"}}) {
+            out.write(("--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"" + field[0] + "\"\r\n\r\n"
+                    + field[1] + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        out.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"imageFile\"; filename=\"load.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(image);
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    /**
+     * 실제 JPEG (썸네일 생성까지 실제와 같은 비용이 들도록)
+     */
+    private static byte[] jpeg(int pixels) throws IOException {
+        BufferedImage image = new BufferedImage(pixels, pixels * 3 / 4, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.ORANGE, pixels, pixels, Color.BLUE));
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.dispose();
+        // 잡음 (압축이 너무 잘 되어 파일이 비현실적으로 작아지지 않도록)
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < image.getWidth() * image.getHeight() / 4; i++) {
+            image.setRGB(random.nextInt(image.getWidth()), random.nextInt(image.getHeight()), random.nextInt());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(pair[0].trim(), weight);
+            }
+        }
+        return mix;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))] / 1e6;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+
+    /**
+     * 요청 종류별 결과 + 서버 JVM (최대 힙, 측정 구간의 GC 일시 정지 횟수/시간)
+     */
+    private record Report(Map<String, Result> requests, long peakHeapBytes, long gcCount, long gcMillis) {
+
+        String toJson(String storage, int rate, int durationSeconds, Map<String, Integer> mix,
+                      long latencyMillis, int imageBytes) {
+            String requestsJson = requests.entrySet().stream()
+                    .map(e -> String.format(Locale.ROOT,
+                            "\"%s\":{\"throughput\":%.1f,\"p50Millis\":%.2f,\"p99Millis\":%.2f,\"errors\":%d}",
+                            e.getKey(), e.getValue().throughput(), e.getValue().p50Millis(),
+                            e.getValue().p99Millis(), e.getValue().errors()))
+                    .collect(Collectors.joining(","));
+            String mixJson = mix.entrySet().stream()
+                    .map(e -> "\"" + e.getKey() + "\":" + e.getValue())
+                    .collect(Collectors.joining(","));
+            return String.format(Locale.ROOT,
+                    "{\"storage\":\"%s\",\"ratePerSecond\":%d,\"durationSeconds\":%d,\"mix\":{%s},"
+                            + "\"s3LatencyMillis\":%d,\"imageBytes\":%d,\"requests\":{%s},"
+                            + "\"peakHeapMb\":%.1f,\"gcCount\":%d,\"gcMillis\":%d}",
+                    storage, rate, durationSeconds, mixJson, latencyMillis, imageBytes, requestsJson,
+                    peakHeapBytes / 1048576.0, gcCount, gcMillis);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package kr.java.upload_exception.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 비동기 작업 설정
+ *
+ * @EnableAsync: @Async 메서드를 별도 스레드에서 실행
+ * @EnableScheduling: @Scheduled 메서드 주기 실행
+ * 작업 종류별로 크기가 정해진 풀을 두어 요청 스레드와 서로를 보호한다.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+@Slf4j
+public class AsyncConfig {
+
+    /**
+     * 썸네일 생성용 풀 (CPU 작업이므로 작게 유지)
+     * 큐가 가득 차면 작업을 버리고 로그만 남김 → 화면은 원본 이미지로 대체됨
+     */
+    @Bean
+    public ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${file.thumbnail.pool-size:2}") int poolSize,
+            @Value("${file.thumbnail.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("썸네일 작업 큐가 가득 차서 건너뜀 (원본 이미지 사용)"));
+        return executor;
+    }
+
+    /**
+     * 이미지 형식 변환용 풀 (ImageTranscoder, 디코딩/인코딩 모두 CPU 작업이라 작게 유지)
+     * 큐가 가득 차면 예외 → 그 요청은 원본으로 응답하고 다음 요청 때 다시 예약
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageTranscodeExecutor(
+            @Value("${file.transcode.pool-size:2}") int poolSize,
+            @Value("${file.transcode.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-transcode-");
+        return executor;
+    }
+
+    /**
+     * 저장소 작업 대기열 처리용 (스레드 1개)
+     * 이미 실행 대기 중인 작업이 있으면 새 요청은 버림 → 한 번의 실행이 모두 처리
+     */
+    @Bean
+    public ThreadPoolTaskExecutor storageOutboxExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("storage-outbox-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            // 다음 실행이 이미 예약되어 있음
+        });
+        return executor;
+    }
+
+    /**
+     * 로컬 파일 삭제용 (LocalFileStorageService.deleteAll, 정리 대기열 묶음을 나눠서 동시에 삭제)
+     * 한 번에 묶음 하나만 넣고 끝날 때까지 기다리므로 대기열 제한 없음
+     */
+    @Bean
+    @ConditionalOnProperty(name = "file.storage.type", havingValue = "local", matchIfMissing = true)
+    public ThreadPoolTaskExecutor localFileDeleteExecutor(
+            @Value("${file.local.delete-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("local-file-delete-");
+        return executor;
+    }
+
+    /**
+     * MVC 비동기 응답용 (StreamingResponseBody - 리뷰 내보내기, WebConfig에서 등록)
+     * 응답 하나가 끝날 때까지 스레드를 잡고 있으므로 동시 수 제한, 초과분은 대기
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(
+            @Value("${review.export.max-concurrent:2}") int maxConcurrent) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    /**
+     * 리뷰 일괄 가져오기 작업용 (한 번에 하나씩, 나머지는 대기)
+     * 대기열이 가득 차면 요청 스레드에서 예외 → API가 409로 응답
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reviewImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(4);
+        executor.setThreadNamePrefix("review-import-");
+        return executor;
+    }
+
+    /**
+     * 일괄 가져오기 이미지 업로드용 (저장소 대기 시간이 대부분이라 CPU 수보다 크게)
+     * 한 번에 묶음 크기(review.import.batch-size)만큼만 넣으므로 대기열 제한 없음
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reviewImportImageExecutor(
+            @Value("${review.import.image-parallelism:8}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("review-import-image-");
+        return executor;
+    }
+}
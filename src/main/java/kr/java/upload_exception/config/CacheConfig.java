@@ -0,0 +1,75 @@
+package kr.java.upload_exception.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * 리뷰 조회 캐시 설정 (서버 메모리, Caffeine)
+ *
+ * 캐시 프록시를 트랜잭션 프록시보다 바깥에 둠 (order = HIGHEST_PRECEDENCE)
+ * → 캐시 적중이면 readOnly 트랜잭션도 시작하지 않아 DB 커넥션을 빌리지 않음
+ * 무효화는 @CacheEvict 대신 ReviewCacheInvalidator가 커밋 후 처리 (다른 서버에도 전달)
+ * review.cache.enabled=false면 아무것도 보관하지 않는 캐시로 교체 (벤치마크, 장애 분석용)
+ * (cacheManager를 직접 등록하므로 spring.cache.type으로는 끌 수 없음)
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    // 리뷰 상세 (키: 리뷰 ID)
+    public static final String REVIEW = "review";
+    // 목록 페이지 (키: 데이터 버전|after|before 커서)
+    public static final String REVIEW_PAGES = "reviewPages";
+    // 렌더링된 리뷰 카드 HTML (키: 리뷰 ID + 데이터 버전, FragmentCacheTag)
+    public static final String REVIEW_FRAGMENTS = "reviewFragments";
+
+    /**
+     * 캐시별 최대 개수와 보관 시간
+     * recordStats: 적중률 등 통계 수집 (CaffeineCache.getNativeCache().stats())
+     */
+    @Bean
+    @ConditionalOnProperty(name = "review.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager cacheManager(@Value("${review.cache.max-size:10000}") long maxSize,
+                                     @Value("${review.cache.ttl:10m}") Duration ttl,
+                                     @Value("${review.cache.page-max-size:100}") long pageMaxSize,
+                                     @Value("${review.cache.page-ttl:1m}") Duration pageTtl,
+                                     @Value("${review.cache.fragment-max-size:2000}") long fragmentMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(REVIEW, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(REVIEW_PAGES, Caffeine.newBuilder()
+                .maximumSize(pageMaxSize)
+                .expireAfterWrite(pageTtl)
+                .recordStats()
+                .build());
+        // 키에 버전이 들어 있어 비우지 않음 → 이전 버전 조각은 크기 제한으로 밀려나고 ttl 지나면 정리
+        cacheManager.registerCustomCache(REVIEW_FRAGMENTS, Caffeine.newBuilder()
+                .maximumSize(fragmentMaxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    /**
+     * 캐시 끔: 항상 미적중 (@Cacheable은 매번 메서드 실행, 무효화는 아무 일도 하지 않음)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "review.cache.enabled", havingValue = "false")
+    public CacheManager noOpCacheManager() {
+        return new NoOpCacheManager();
+    }
+}
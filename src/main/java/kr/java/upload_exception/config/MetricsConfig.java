@@ -0,0 +1,53 @@
+package kr.java.upload_exception.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.java.upload_exception.service.FileStorageMetrics;
+import kr.java.upload_exception.service.FileStorageService;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 메트릭 설정 (Actuator + Micrometer, /actuator/prometheus 로 수집)
+ *
+ * 저장소 구현체(Local, S3)는 그대로 두고 Bean을 만들 때 FileStorageMetrics로 감쌈
+ * → 구현체가 추가되어도 측정 코드를 따로 넣지 않아도 됨
+ * 캐시(Caffeine) 적중률, JVM, Tomcat, HTTP 요청 메트릭은 Actuator가 자동으로 등록
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * FileStorageService Bean을 측정 프록시로 감쌈
+     *
+     * static: BeanPostProcessor는 다른 Bean보다 먼저 만들어지므로 설정 클래스 인스턴스 없이 생성
+     * MeterRegistry는 실제로 감쌀 때 꺼냄 (미리 꺼내면 레지스트리 관련 Bean이 너무 일찍 만들어짐)
+     * proxyTargetClass: LocalImageHandler 등이 구현체 타입(LocalFileStorageService)으로 주입받으므로 클래스 기준 프록시
+     */
+    @Bean
+    public static BeanPostProcessor fileStorageMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                    @Value("${file.storage.type:local}") String backend) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof FileStorageService)) {
+                    return bean;
+                }
+                FileStorageMetrics metrics = new FileStorageMetrics(meterRegistry.getObject(), backend);
+                // 이미 다른 이유로 프록시라면 측정만 맨 앞에 추가
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, metrics);
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(metrics);
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        };
+    }
+}
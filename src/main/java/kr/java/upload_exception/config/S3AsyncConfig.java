@@ -0,0 +1,60 @@
+package kr.java.upload_exception.config;
+
+import kr.java.upload_exception.controller.S3AsyncImageServlet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.providers.AwsRegionProvider;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+
+import java.net.URI;
+
+/**
+ * 비동기 S3 조회 설정 (file.storage.type=s3, file.s3.async=true 일 때만)
+ *
+ * spring-cloud-aws-starter-s3는 동기 S3Client만 만들어 주므로,
+ * 스타터가 만든 인증/리전 정보와 같은 spring.cloud.aws.s3.* 설정으로 S3AsyncClient를 직접 구성
+ */
+@Configuration
+@ConditionalOnExpression("'${file.storage.type:local}' == 's3' and ${file.s3.async:false}")
+public class S3AsyncConfig {
+
+    /**
+     * S3AsyncClient (Netty 이벤트 루프 기반 → 전송 중에도 스레드를 점유하지 않음)
+     * 동시 요청 상한은 동기 클라이언트와 같은 file.s3.max-connections
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient(AwsCredentialsProvider credentialsProvider,
+                                       AwsRegionProvider regionProvider,
+                                       @Value("${spring.cloud.aws.s3.endpoint:}") String endpoint,
+                                       @Value("${spring.cloud.aws.s3.path-style-access-enabled:false}") boolean pathStyle,
+                                       @Value("${file.s3.max-connections:200}") int maxConnections) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .credentialsProvider(credentialsProvider)
+                .region(regionProvider.getRegion())
+                .forcePathStyle(pathStyle)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(maxConnections));
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    /**
+     * /images/* 를 DispatcherServlet보다 먼저 받는 비동기 서블릿
+     * (경로 매핑이 기본 매핑 "/"보다 우선)
+     */
+    @Bean
+    public ServletRegistrationBean<S3AsyncImageServlet> s3AsyncImageServletRegistration(S3AsyncImageServlet servlet) {
+        ServletRegistrationBean<S3AsyncImageServlet> registration = new ServletRegistrationBean<>(servlet, "/images/*");
+        registration.setName("s3AsyncImageServlet");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
@@ -0,0 +1,73 @@
+package kr.java.upload_exception.config;
+
+import kr.java.upload_exception.service.S3MultipartUploader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+/**
+ * S3 저장소 부가 설정 (file.storage.type=s3 일 때만)
+ * S3Client 설정(리전, 인증, 엔드포인트)은 spring-cloud-aws-starter-s3가 만든 S3ClientBuilder 사용
+ */
+@Configuration
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "s3")
+public class S3Config {
+
+    /**
+     * S3Client (연결 풀 크기만 변경)
+     * SDK 기본값(50)이면 요청 스레드가 많아도 동시에 50개까지만 S3를 호출할 수 있음
+     */
+    @Bean
+    public S3Client s3Client(S3ClientBuilder s3ClientBuilder,
+                             @Value("${file.s3.max-connections:200}") int maxConnections) {
+        return s3ClientBuilder
+                .httpClientBuilder(ApacheHttpClient.builder().maxConnections(maxConnections))
+                .build();
+    }
+
+    /**
+     * 멀티파트 파트 전송용 풀 (네트워크 I/O 대기 위주)
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor s3UploadExecutor(@Value("${file.s3.upload-parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("s3-upload-");
+        return executor;
+    }
+
+    /**
+     * 가상 스레드 모드: 파트마다 가상 스레드 (풀을 두지 않음)
+     * 동시 전송 수는 S3MultipartUploader의 버퍼 풀이 제한
+     */
+    @Bean(name = "s3UploadExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor s3UploadVirtualExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("s3-upload-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * 버퍼 수 = 병렬 전송 수 (모든 업로드가 공유 → 메모리 상한 parallelism * part-size)
+     */
+    @Bean
+    public S3MultipartUploader s3MultipartUploader(S3Client s3Client,
+                                                   AsyncTaskExecutor s3UploadExecutor,
+                                                   @Value("${file.s3.part-size:8MB}") DataSize partSize,
+                                                   @Value("${file.s3.upload-parallelism:4}") int parallelism) {
+        return new S3MultipartUploader(s3Client, s3UploadExecutor, (int) partSize.toBytes(), parallelism);
+    }
+}
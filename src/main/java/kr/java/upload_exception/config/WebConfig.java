@@ -1,38 +1,53 @@
 package kr.java.upload_exception.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import kr.java.upload_exception.controller.LocalImageHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 
-import java.nio.file.Paths;
+import java.util.Map;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    // org.springframework.beans.factory.annotation.Value;
-    @Value("${file.upload-dir}") // @Value 필드 주입
-    private String uploadDir; // 경로 찾을때 사용
+    private final ThreadPoolTaskExecutor mvcAsyncExecutor;
 
-    @Value("${file.storage.type}")
-    private String storageType;
+    public WebConfig(@Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor) {
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+    }
 
     /**
-     * 정적 리소스 핸들러 설정
-     *
-     * URL 요청과 실제 파일 위치를 연결
-     * 예: /images/abc.jpg 요청 → uploads/abc.jpg 파일 반환
+     * 비동기 응답(StreamingResponseBody)을 실행할 풀
+     * 지정하지 않으면 요청마다 새 스레드를 만듦 (작업별 풀이 있어 기본 applicationTaskExecutor가 생성되지 않음)
+     * 제한 시간은 spring.mvc.async.request-timeout
      */
     @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        if (storageType.equals("local")) {
-            // uploadDir의 절대 경로 계산
-            String absolutePath = Paths.get(uploadDir).toAbsolutePath().normalize().toString();
-            System.out.println("WebConfig - absolutePath = " + absolutePath);
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+    }
 
-            registry.addResourceHandler("/images/**")  // URL 패턴
-                    .addResourceLocations("file:" + absolutePath + "/")  // 실제 디렉토리
-                    .setCachePeriod(3600);  // 캐시 유지 시간 (초) - 브라우저가 1시간 동안 이미지 재요청 안 함
-        }
+    /**
+     * 로컬 이미지 URL 연결 (file.storage.type=local)
+     *
+     * URL 요청과 실제 파일 위치를 연결
+     * 예: /images/abcd12.jpg 요청 → uploads/ab/cd/abcd12.jpg 파일 반환
+     * 처리는 LocalImageHandler (sendfile 전송, 메타데이터 캐시, immutable 캐시 헤더)
+     *
+     * 순서: 컨트롤러(@RequestMapping, 0) 다음, 정적 리소스 핸들러보다 먼저
+     */
+    @Bean
+    @ConditionalOnProperty(
+            name = "file.storage.type",
+            havingValue = "local",
+            matchIfMissing = true)
+    public SimpleUrlHandlerMapping localImageHandlerMapping(LocalImageHandler localImageHandler) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(Map.of("/images/**", localImageHandler));
+        mapping.setOrder(1);
+        return mapping;
     }
 }
@@ -0,0 +1,199 @@
+package kr.java.upload_exception.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ByteBuffer 발행자 → 서블릿 비동기 출력 (요청 1개당 1개)
+ *
+ * 배압(backpressure):
+ * - 버퍼는 한 번에 1개만 요청(request(1))하고, 그 버퍼를 소켓에 다 쓴 뒤에만 다음 버퍼를 요청
+ * - 소켓이 막히면(isReady() == false) 요청을 멈춤 → 컨테이너가 onWritePossible로 다시 깨움
+ * 따라서 클라이언트가 느려도 메모리에는 버퍼 1개만 머물고, 기다리는 동안 점유하는 스레드가 없다.
+ *
+ * 컨테이너 스레드(onWritePossible)와 SDK 스레드(onNext/onComplete)가 동시에 쓰지 않도록 lock으로 보호
+ */
+@Slf4j
+final class AsyncResponseWriter implements Subscriber<ByteBuffer>, AsyncListener {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final AsyncContext asyncContext;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final byte[] chunk = new byte[CHUNK_SIZE]; // 힙 배열로 복사해서 씀 (SDK 버퍼는 읽기 전용/다이렉트일 수 있음)
+
+    // Subscriber.onError와 WriteListener.onError의 시그니처가 같아 따로 둠
+    private final WriteListener writeListener = new WriteListener() {
+        @Override
+        public void onWritePossible() {
+            lock.lock();
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            cancel(); // 클라이언트 연결 끊김 등
+        }
+    };
+
+    private ServletOutputStream out;
+    private volatile Subscription subscription; // 취소는 컨테이너 스레드에서도 호출됨
+    private ByteBuffer current;
+    private boolean demanded;
+    private boolean upstreamDone;
+
+    AsyncResponseWriter(AsyncContext asyncContext) {
+        this.asyncContext = asyncContext;
+        asyncContext.addListener(this);
+    }
+
+    /**
+     * 이미 끝난 응답인지 (시간 초과, 클라이언트 연결 끊김)
+     */
+    boolean isFinished() {
+        return finished.get();
+    }
+
+    /**
+     * 헤더를 설정한 뒤 본문 전송 시작 (이미 끝난 응답이면 out은 null일 수 있음)
+     */
+    void stream(Publisher<ByteBuffer> body, ServletOutputStream out) {
+        this.out = out;
+        body.subscribe(this); // 이미 끝난 응답이면 onSubscribe에서 바로 취소 → S3 연결 반납
+    }
+
+    /**
+     * 본문 없이 응답 종료 (304, 404, HEAD 등)
+     */
+    void finish() {
+        if (finished.compareAndSet(false, true)) {
+            asyncContext.complete();
+        }
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        if (finished.get()) {
+            subscription.cancel();
+            return;
+        }
+        // 쓸 수 있게 되면 컨테이너가 onWritePossible 호출 → 그때 첫 버퍼 요청
+        try {
+            out.setWriteListener(writeListener);
+        } catch (IllegalStateException e) {
+            cancel(); // 그 사이 응답이 끝난 경우
+        }
+    }
+
+    @Override
+    public void onNext(ByteBuffer buffer) {
+        lock.lock();
+        try {
+            current = buffer;
+            demanded = false;
+            // request(1) 안에서 바로 호출된 경우(재진입)는 바깥 drain 루프가 이어서 씀
+            if (lock.getHoldCount() == 1) {
+                drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        lock.lock();
+        try {
+            upstreamDone = true;
+            if (lock.getHoldCount() == 1) {
+                drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        // 헤더(Content-Length)는 이미 나갔으므로 연결을 끊어 클라이언트가 잘린 응답임을 알게 함
+        log.error("S3 응답 스트리밍 실패: {}", error.getMessage());
+        finish();
+    }
+
+    // lock을 잡은 상태에서만 호출
+    private void drain() {
+        try {
+            while (!finished.get() && out.isReady()) {
+                if (current != null && current.hasRemaining()) {
+                    int length = Math.min(chunk.length, current.remaining());
+                    current.get(chunk, 0, length);
+                    out.write(chunk, 0, length);
+                    continue;
+                }
+                current = null;
+                if (upstreamDone) {
+                    finish();
+                    return;
+                }
+                if (!demanded) {
+                    demanded = true;
+                    subscription.request(1);
+                    if (current != null || upstreamDone) {
+                        continue; // 요청 안에서 바로 도착
+                    }
+                }
+                return; // 다음 버퍼가 오면 onNext에서 이어서 씀
+            }
+            // isReady() == false: 컨테이너가 쓸 수 있을 때 onWritePossible 호출
+        } catch (IOException e) {
+            cancel();
+        }
+    }
+
+    // 클라이언트 쪽 실패 → S3 전송도 중단
+    private void cancel() {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        finish();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        cancel();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        log.warn("이미지 응답 시간 초과 - 전송 중단");
+        cancel();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        finished.set(true);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // 사용하지 않음
+    }
+}
@@ -0,0 +1,229 @@
+package kr.java.upload_exception.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kr.java.upload_exception.exception.FileStorageException;
+import kr.java.upload_exception.service.ImageTranscoder;
+import kr.java.upload_exception.service.ImageTranscoder.Negotiation;
+import kr.java.upload_exception.service.LocalFileMetadataCache;
+import kr.java.upload_exception.service.LocalFileMetadataCache.FileMeta;
+import kr.java.upload_exception.service.LocalFileStorageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 로컬 이미지 응답 (/images/**, file.storage.type=local)
+ *
+ * Spring 기본 리소스 핸들러 대신 이미지 전용으로 가볍게 처리
+ * - 메타데이터(크기, 수정 시각, ETag)는 LocalFileMetadataCache에서 → 요청마다 stat 하지 않음
+ * - 본문은 Tomcat sendfile(커널이 파일 → 소켓 직접 전송)로 넘기고,
+ *   지원하지 않는 컨테이너에서는 FileChannel.transferTo로 전송
+ * - 키가 UUID/해시라 같은 URL의 내용은 바뀌지 않으므로 1년 immutable 캐시
+ * - 조건부 요청(If-None-Match / If-Modified-Since) → 304
+ * - 범위 요청(Range, 단일 범위) → 206 (여러 범위는 전체 200으로 응답)
+ * - Accept에 WebP 등이 있으면 변환본으로 응답 (ImageTranscoder, Vary: Accept)
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "file.storage.type",
+        havingValue = "local",
+        matchIfMissing = true)
+public class LocalImageHandler implements HttpRequestHandler {
+
+    // Tomcat sendfile 요청 속성 (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private final LocalFileStorageService localFileStorageService;
+    private final LocalFileMetadataCache metadataCache;
+    private final ImageTranscoder imageTranscoder;
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        // /images/ 뒤의 경로 = 저장소 키
+        String key = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        Optional<FileMeta> found = Optional.empty();
+        boolean pending = false;
+        if (imageTranscoder.isNegotiable(key)) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            Negotiation negotiation = imageTranscoder.negotiate(key, request.getHeader(HttpHeaders.ACCEPT));
+            pending = negotiation.pending();
+            Optional<String> transcoded = negotiation.transcoded();
+            if (transcoded.isPresent()) {
+                found = findMeta(transcoded.get());
+                if (found.isPresent()) {
+                    key = transcoded.get();
+                } else {
+                    imageTranscoder.evict(transcoded.get()); // 원본과 함께 삭제됨
+                    pending = true; // 다음 요청에서 다시 확인
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            found = findMeta(key);
+        }
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        FileMeta meta = found.get();
+
+        // 변환 중이면 원본을 오래 캐시하지 않음 (변환본이 준비되면 같은 URL로 교체)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, pending ? ImageTranscoder.PENDING_CACHE_CONTROL : CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // ETag, Last-Modified 설정 + 일치하면 304
+        if (new ServletWebRequest(request, response).checkNotModified(meta.eTag(), meta.lastModified())) {
+            return;
+        }
+        response.setContentType(meta.contentType());
+
+        long start = 0;
+        long end = meta.length() - 1;
+        HttpRange range = singleRange(request, meta);
+        if (range != null) {
+            if (meta.length() == 0 || range.getRangeStart(meta.length()) >= meta.length()) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + meta.length());
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = range.getRangeStart(meta.length());
+            end = range.getRangeEnd(meta.length());
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + meta.length());
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (method.equals("HEAD") || length <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat은 파일을 응답이 끝난 뒤에 열기 때문에 열기 실패를 여기서 알 수 없음
+            // → 캐시된 경로가 아직 유효한지 확인 (샤드 이전으로 옮겨졌으면 다시 찾음)
+            Path path = currentPath(key, meta);
+            if (path == null) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            // 본문을 쓰지 않고 속성만 지정 → 응답이 끝나면 Tomcat이 sendfile로 전송
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(key, meta, start, length, response);
+    }
+
+    /**
+     * 캐시된 메타데이터 조회 (잘못된 키는 empty)
+     */
+    private Optional<FileMeta> findMeta(String key) throws IOException {
+        if (key == null || key.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return metadataCache.get(key, localFileStorageService::resolve);
+        } catch (FileStorageException e) {
+            return Optional.empty(); // 경로 조작 시도
+        }
+    }
+
+    /**
+     * 캐시된 경로에 파일이 없으면 캐시를 비우고 다시 찾음 (삭제된 파일이면 null)
+     * 샤드 이전은 rename이라 크기, 수정 시각은 그대로 → 이미 설정한 헤더는 유효
+     */
+    private Path currentPath(String key, FileMeta meta) throws IOException {
+        if (Files.isRegularFile(meta.path())) {
+            return meta.path();
+        }
+        metadataCache.evict(key);
+        return findMeta(key).map(FileMeta::path).orElse(null);
+    }
+
+    /**
+     * 단일 Range만 처리 (If-Range가 현재 ETag와 다르면 전체 응답)
+     */
+    private HttpRange singleRange(HttpServletRequest request, FileMeta meta) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(meta.eTag())) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null; // 형식이 잘못된 Range는 무시하고 전체 응답
+        }
+    }
+
+    /**
+     * sendfile을 쓸 수 없을 때: FileChannel.transferTo (힙에 파일 전체를 올리지 않음)
+     */
+    private void transfer(String key, FileMeta meta, long start, long length,
+                          HttpServletResponse response) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(meta.path(), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // 삭제되었거나 샤드 배치로 옮겨진 파일 → 캐시를 비우고 다음 요청에서 다시 찾음
+            metadataCache.evict(key);
+            response.reset();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        try (channel; OutputStream out = response.getOutputStream()) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -3,23 +3,39 @@ package kr.java.upload_exception.controller;
 import jakarta.validation.Valid;
 import kr.java.upload_exception.exception.FileStorageException;
 import kr.java.upload_exception.exception.InvalidFileTypeException;
+import kr.java.upload_exception.model.dto.CursorPage;
+import kr.java.upload_exception.model.dto.ReviewSummary;
+import kr.java.upload_exception.model.dto.SearchPage;
 import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.service.RatingStatsService;
 import kr.java.upload_exception.service.ReviewService;
+import kr.java.upload_exception.service.ReviewVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("/reviews")
 public class ReviewController {
     private final ReviewService reviewService;
+    private final ReviewVersion reviewVersion;
+    private final RatingStatsService ratingStatsService;
+
+    // 스트리밍 업로드 사용 시 작성 폼이 StreamingReviewController(/reviews/upload)로 전송
+    @Value("${file.upload.streaming:false}")
+    private boolean streamingUpload;
+
+    // 브라우저가 보관은 하되 매번 ETag로 재검증 (바뀌지 않았으면 304)
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
 
     /**
      * 컨트롤러 단위 예외 처리
@@ -34,29 +50,79 @@ public class ReviewController {
     }
 
     /**
-     * 리뷰 목록 페이지
+     * 리뷰 목록 페이지 (커서 페이지네이션)
      * GET /reviews
+     * GET /reviews?after={cursor}  (다음 페이지)
+     * GET /reviews?before={cursor} (이전 페이지)
+     *
+     * 리뷰 데이터 버전(ReviewVersion)이 ETag → 변경이 없으면 304 (조회, 렌더링 모두 생략)
+     * 리뷰 카드는 같은 버전이면 렌더링된 HTML을 재사용 (list.jsp의 frag:cache)
      */
     @GetMapping
-    public String list(Model model) {
-        List<Review> reviews = reviewService.findAll();
-        model.addAttribute("reviews", reviews);
+    public String list(@RequestParam(required = false) String after,
+                       @RequestParam(required = false) String before,
+                       ServletWebRequest webRequest,
+                       Model model) {
+        long version = reviewVersion.current(); // 조회보다 먼저 읽어야 함 (ReviewVersion 참고)
+        if (notModified(webRequest, model, version)) {
+            return null;
+        }
+        CursorPage<ReviewSummary> page = reviewService.findPage(after, before);
+        model.addAttribute("page", page);
+        model.addAttribute("reviews", page.getItems());
+        model.addAttribute("reviewVersion", version);
+        model.addAttribute("stats", ratingStatsService.getStats());
         model.addAttribute("pageName", "리뷰 목록");
         return "review/list";
     }
 
+    /**
+     * 리뷰 검색 (제목/내용)
+     * GET /reviews/search?q={검색어}&minRating={최소 평점}&page={0부터}
+     */
+    @GetMapping("/search")
+    public String search(@RequestParam(required = false) String q,
+                         @RequestParam(defaultValue = "1") int minRating,
+                         @RequestParam(defaultValue = "0") int page,
+                         Model model) {
+        int rating = Math.clamp(minRating, 1, 5);
+        SearchPage result = reviewService.search(q, rating, Math.max(page, 0));
+        model.addAttribute("result", result);
+        model.addAttribute("reviews", result.getItems());
+        model.addAttribute("q", q);
+        model.addAttribute("minRating", rating);
+        model.addAttribute("pageName", "리뷰 검색");
+        return "review/search";
+    }
+
     /**
      * 리뷰 상세(개별) 페이지
      * GET /reviews/{id}
      */
     @GetMapping("/{id}")
-    public String detail(@PathVariable Long id, Model model) {
+    public String detail(@PathVariable Long id, ServletWebRequest webRequest, Model model) {
+        long version = reviewVersion.current();
+        if (notModified(webRequest, model, version)) {
+            return null;
+        }
         Review review = reviewService.findById(id);
         model.addAttribute("review", review);
         model.addAttribute("pageName", "리뷰 상세");
         return "review/detail";
     }
 
+    /**
+     * 조건부 요청 처리 (true면 304 응답, 컨트롤러는 null 반환)
+     * Flash 메시지가 있는 응답은 한 번만 보여야 하므로 검증자(ETag)를 붙이지 않음
+     */
+    private boolean notModified(ServletWebRequest webRequest, Model model, long version) {
+        if (model.containsAttribute("message")) {
+            return false;
+        }
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        return webRequest.checkNotModified(reviewVersion.eTag(version));
+    }
+
     /**
      * 리뷰 작성 폼 페이지
      * GET /reviews/new
@@ -65,6 +131,7 @@ public class ReviewController {
     public String createForm(Model model) {
         model.addAttribute("review", new Review());
         model.addAttribute("pageName", "리뷰 작성");
+        model.addAttribute("streamingUpload", streamingUpload);
         return "review/form";
     }
 
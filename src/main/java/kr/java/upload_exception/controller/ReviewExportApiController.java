@@ -0,0 +1,66 @@
+package kr.java.upload_exception.controller;
+
+import kr.java.upload_exception.service.ReviewExportService;
+import kr.java.upload_exception.service.ReviewExportService.Format;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 리뷰 전체 내보내기 API (분석용)
+ *
+ * GET /api/reviews/export?format=ndjson|csv&gzip=true → reviews.ndjson(.gz) 파일 다운로드
+ *
+ * 응답은 비동기 스레드(WebConfig의 mvcAsyncExecutor)에서 DB 커서를 읽으며 바로 씀
+ * → 요청 스레드를 잡아두지 않고, 응답 크기와 관계없이 메모리 사용량 일정
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reviews")
+public class ReviewExportApiController {
+    private final ReviewExportService reviewExportService;
+
+    // gzip 압축 버퍼 (클수록 압축 호출 횟수가 줄어듦)
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        Format exportFormat = Format.from(format);
+        String filename = "reviews." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8");
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                reviewExportService.export(exportFormat, out);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            reviewExportService.export(exportFormat, compressed);
+            compressed.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
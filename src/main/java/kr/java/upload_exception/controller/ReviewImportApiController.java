@@ -0,0 +1,76 @@
+package kr.java.upload_exception.controller;
+
+import kr.java.upload_exception.model.dto.ReviewImportJob;
+import kr.java.upload_exception.service.ReviewImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 리뷰 일괄 가져오기 API (JSON)
+ *
+ * 1. POST /api/reviews/import      multipart: reviews(.ndjson/.csv), images(.zip, 선택) → 202 + 작업 상태
+ * 2. GET  /api/reviews/import/{id} → 진행 상황 (읽은 행, 성공, 실패, 실패 행 목록, 분당 처리 수)
+ *
+ * 요청 크기는 spring.servlet.multipart 제한을 따름
+ * 더 큰 파일은 서버에서 직접 실행 (ReviewImportRunner)
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reviews/import")
+public class ReviewImportApiController {
+    private final ReviewImportService reviewImportService;
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleBusy(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "대기 중인 가져오기 작업이 많습니다. 잠시 후 다시 시도하세요."));
+    }
+
+    @PostMapping
+    public ResponseEntity<ReviewImportJob> start(@RequestParam("reviews") MultipartFile reviews,
+                                                 @RequestParam(value = "images", required = false) MultipartFile images)
+            throws IOException {
+        String name = reviews.getOriginalFilename() == null ? "" : reviews.getOriginalFilename().toLowerCase(Locale.ROOT);
+        // 업로드 파일은 요청이 끝나면 지워지므로 작업용 디렉토리로 옮겨둠 (작업이 끝나면 삭제)
+        Path workDir = Files.createTempDirectory("review-import-");
+        try {
+            Path reviewsPath = workDir.resolve(name.endsWith(".csv") ? "reviews.csv" : "reviews.ndjson");
+            reviews.transferTo(reviewsPath);
+            Path imagesPath = null;
+            if (images != null && !images.isEmpty()) {
+                imagesPath = workDir.resolve("images.zip");
+                images.transferTo(imagesPath);
+            }
+            ReviewImportJob job = reviewImportService.start(reviewsPath, imagesPath, workDir);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reviews/import/" + job.getId()))
+                    .body(job);
+        } catch (IOException e) {
+            FileSystemUtils.deleteRecursively(workDir);
+            throw e;
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReviewImportJob> status(@PathVariable String id) {
+        return ResponseEntity.of(reviewImportService.findJob(id));
+    }
+}
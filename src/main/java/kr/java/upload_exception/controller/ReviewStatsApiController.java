@@ -0,0 +1,25 @@
+package kr.java.upload_exception.controller;
+
+import kr.java.upload_exception.model.dto.RatingStats;
+import kr.java.upload_exception.service.RatingStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 평점 통계 API (JSON, 대시보드용)
+ *
+ * GET /api/reviews/stats → {count, average, histogram: [{rating, count, percent}, ...]}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reviews")
+public class ReviewStatsApiController {
+    private final RatingStatsService ratingStatsService;
+
+    @GetMapping("/stats")
+    public RatingStats stats() {
+        return ratingStatsService.getStats();
+    }
+}
@@ -0,0 +1,262 @@
+package kr.java.upload_exception.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kr.java.upload_exception.service.ImageTranscoder;
+import kr.java.upload_exception.service.ImageTranscoder.Negotiation;
+import kr.java.upload_exception.service.S3AsyncImageReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.ResponsePublisher;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * S3 이미지 비동기 조회 (/images/*, file.s3.async=true)
+ *
+ * S3FileController는 S3 응답 InputStream을 요청 스레드에서 끝까지 복사하므로,
+ * 동시에 전송 중인 이미지 수만큼 스레드가 필요하다.
+ * 여기서는 요청을 비동기(startAsync)로 전환하고 요청 스레드를 바로 반납한 뒤,
+ * S3AsyncClient가 넘겨주는 ByteBuffer를 AsyncResponseWriter가 소켓이 받을 수 있을 때만 쓴다.
+ *
+ * 응답 헤더와 상태 코드는 S3FileController와 같게 유지
+ * - 조건부 요청(If-None-Match / If-Modified-Since)은 S3에 그대로 전달 → 304
+ * - 범위 요청(Range, 단일 범위)도 S3에 그대로 전달 → 206 / 416
+ * - 형식 협상(Accept): 변환본이 있으면 그 키로 조회, 없어졌으면 원본으로 다시 조회 (Vary: Accept)
+ * - 디스크 캐시는 사용하지 않음 (캐시 파일 쓰기가 다시 스레드를 잡기 때문)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnExpression("'${file.storage.type:local}' == 's3' and ${file.s3.async:false}")
+public class S3AsyncImageServlet extends HttpServlet {
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.HOURS).getHeaderValue();
+
+    private final S3AsyncImageReader imageReader;
+    private final ImageTranscoder imageTranscoder;
+
+    @Value("${file.s3.async-timeout:60s}")
+    private Duration timeout;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+        String key = key(request);
+        if (key == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && range.contains(",")) {
+            range = null; // S3는 단일 범위만 지원 → 전체 응답
+        }
+
+        String servedKey = negotiate(request, response, key);
+        AsyncResponseWriter writer = start(request);
+        get(writer, response, servedKey, key, range, request.getHeader(HttpHeaders.IF_NONE_MATCH), ifModifiedSince(request));
+        // 여기서 반환 → 요청 스레드는 다른 요청을 처리하러 감
+    }
+
+    /**
+     * @param key      조회할 키 (변환본일 수 있음)
+     * @param original 요청한 원본 키 (변환본이 없으면 이 키로 다시 조회)
+     */
+    private void get(AsyncResponseWriter writer, HttpServletResponse response, String key, String original,
+                     String range, String ifNoneMatch, Instant ifModifiedSince) {
+        imageReader.get(key, range, ifNoneMatch, ifModifiedSince)
+                .whenComplete((publisher, error) -> {
+                    if (error != null) {
+                        if (isTranscodedMissing(key, original, error)) {
+                            response.setHeader(HttpHeaders.CACHE_CONTROL, ImageTranscoder.PENDING_CACHE_CONTROL);
+                            get(writer, response, original, original, range, ifNoneMatch, ifModifiedSince);
+                            return;
+                        }
+                        fail(writer, response, key, error);
+                        return;
+                    }
+                    respond(writer, response, key, publisher);
+                });
+    }
+
+    @Override
+    protected void doHead(HttpServletRequest request, HttpServletResponse response) {
+        String key = key(request);
+        if (key == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String servedKey = negotiate(request, response, key);
+        AsyncResponseWriter writer = start(request);
+        head(writer, response, servedKey, key, request.getHeader(HttpHeaders.IF_NONE_MATCH), ifModifiedSince(request));
+    }
+
+    private void head(AsyncResponseWriter writer, HttpServletResponse response, String key, String original,
+                      String ifNoneMatch, Instant ifModifiedSince) {
+        imageReader.head(key, ifNoneMatch, ifModifiedSince)
+                .whenComplete((head, error) -> {
+                    if (error != null) {
+                        if (isTranscodedMissing(key, original, error)) {
+                            response.setHeader(HttpHeaders.CACHE_CONTROL, ImageTranscoder.PENDING_CACHE_CONTROL);
+                            head(writer, response, original, original, ifNoneMatch, ifModifiedSince);
+                            return;
+                        }
+                        fail(writer, response, key, error);
+                        return;
+                    }
+                    if (!writer.isFinished()) {
+                        inlineHeaders(response, key, head.contentType(), head.contentLength(),
+                                head.eTag(), head.lastModified());
+                    }
+                    writer.finish();
+                });
+    }
+
+    /**
+     * Accept에 맞는 변환본 키 (없으면 원본 키), 협상 대상이면 Vary: Accept
+     * 변환 중이면 Cache-Control을 미리 설정 (inlineHeaders가 덮어쓰지 않음)
+     */
+    private String negotiate(HttpServletRequest request, HttpServletResponse response, String key) {
+        if (!imageTranscoder.isNegotiable(key)) {
+            return key;
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Negotiation negotiation = imageTranscoder.negotiate(key, request.getHeader(HttpHeaders.ACCEPT));
+        if (negotiation.pending()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, ImageTranscoder.PENDING_CACHE_CONTROL);
+        }
+        return negotiation.transcoded().orElse(key);
+    }
+
+    /**
+     * 변환본이 원본과 함께 삭제된 경우 → 상태를 비우고 원본으로 다시 조회
+     */
+    private boolean isTranscodedMissing(String key, String original, Throwable error) {
+        if (key.equals(original)) {
+            return false;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean missing = cause instanceof NoSuchKeyException
+                || cause instanceof S3Exception e && e.statusCode() == HttpServletResponse.SC_NOT_FOUND;
+        if (missing) {
+            imageTranscoder.evict(key);
+        }
+        return missing;
+    }
+
+    private AsyncResponseWriter start(HttpServletRequest request) {
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(timeout.toMillis());
+        return new AsyncResponseWriter(asyncContext);
+    }
+
+    private void respond(AsyncResponseWriter writer, HttpServletResponse response, String key,
+                         ResponsePublisher<GetObjectResponse> publisher) {
+        GetObjectResponse object = publisher.response();
+        ServletOutputStream out = null;
+        try {
+            if (!writer.isFinished()) {
+                if (object.contentRange() != null) {
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, object.contentRange());
+                }
+                inlineHeaders(response, key, object.contentType(), object.contentLength(),
+                        object.eTag(), object.lastModified());
+                out = response.getOutputStream();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 그 사이 시간 초과로 응답이 끝난 경우 등
+            log.warn("이미지 응답 시작 실패 - key: {}, {}", key, e.getMessage());
+            writer.finish();
+        }
+        // 끝난 응답이어도 구독은 해야 함 (구독 즉시 취소 → S3 연결 반납)
+        writer.stream(publisher, out);
+    }
+
+    /**
+     * S3 오류 → 상태 코드 (S3FileController와 같은 기준)
+     */
+    private void fail(AsyncResponseWriter writer, HttpServletResponse response, String key, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!writer.isFinished()) {
+            response.setStatus(statusOf(key, cause));
+            if (cause instanceof S3Exception e && e.statusCode() == HttpServletResponse.SC_NOT_MODIFIED) {
+                // 304에도 검증자(ETag)를 돌려줌
+                e.awsErrorDetails().sdkHttpResponse().firstMatchingHeader(HttpHeaders.ETAG)
+                        .ifPresent(eTag -> response.setHeader(HttpHeaders.ETAG, eTag));
+            }
+        }
+        writer.finish();
+    }
+
+    private int statusOf(String key, Throwable cause) {
+        if (cause instanceof NoSuchKeyException) {
+            return HttpServletResponse.SC_NOT_FOUND;
+        }
+        if (cause instanceof S3Exception e
+                && (e.statusCode() == HttpServletResponse.SC_NOT_MODIFIED
+                || e.statusCode() == HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE
+                || e.statusCode() == HttpServletResponse.SC_NOT_FOUND)) { // HEAD 응답에는 오류 코드 본문이 없음
+            return e.statusCode();
+        }
+        log.error("파일 다운로드 실패 - key: {}, {}", key, cause.getMessage());
+        return HttpServletResponse.SC_NOT_FOUND;
+    }
+
+    /**
+     * /images/ 뒤의 파일 이름 (하위 경로나 빈 값은 null)
+     */
+    private String key(HttpServletRequest request) {
+        String pathInfo = request.getPathInfo();
+        if (pathInfo == null || pathInfo.length() <= 1) {
+            return null;
+        }
+        String key = pathInfo.substring(1);
+        return key.contains("/") ? null : key;
+    }
+
+    private Instant ifModifiedSince(HttpServletRequest request) {
+        try {
+            long millis = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return millis >= 0 ? Instant.ofEpochMilli(millis) : null;
+        } catch (IllegalArgumentException e) {
+            return null; // 형식이 잘못된 헤더는 무시
+        }
+    }
+
+    private void inlineHeaders(HttpServletResponse response, String key, String contentType, Long contentLength,
+                               String eTag, Instant lastModified) {
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        if (contentLength != null) {
+            response.setContentLengthLong(contentLength);
+        }
+        if (eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        if (lastModified != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified.toEpochMilli());
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (!response.containsHeader(HttpHeaders.CACHE_CONTROL)) { // 변환 중이면 negotiate에서 설정
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + key + "\"");
+    }
+}
@@ -1,68 +1,195 @@
 package kr.java.upload_exception.controller;
 
+import kr.java.upload_exception.service.ImageDiskCache;
+import kr.java.upload_exception.service.ImageDiskCache.CachedImage;
+import kr.java.upload_exception.service.ImageTranscoder;
+import kr.java.upload_exception.service.ImageTranscoder.Negotiation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.http.MediaType.parseMediaType;
 
+/**
+ * S3 이미지 조회
+ * 로컬 저장소(local)일 때는 LocalImageHandler가 /images/** 를 처리하므로 등록하지 않음
+ * file.s3.async=true 이면 S3AsyncImageServlet이 대신 처리
+ */
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("/images")
 @Slf4j
+@ConditionalOnExpression("'${file.storage.type:local}' == 's3' and !${file.s3.async:false}")
 public class S3FileController {
     private final S3Client s3Client;
+    private final ImageDiskCache imageDiskCache;
+    private final ImageTranscoder imageTranscoder;
 
     @Value("${aws.s3.bucket}")
     private String bucket;
 
     /**
      * 파일 이름을 받아 Supabase Storage에서 파일 내용을 직접 스트리밍합니다.
+     * 로컬 디스크 캐시에 있으면 S3를 거치지 않고 캐시 파일로 응답합니다.
+     *
+     * 조건부 요청(If-None-Match / If-Modified-Since): S3 ETag, Last-Modified 기준으로 304 응답
+     * - 캐시 적중: 캐시에 보관한 메타데이터로 판단 (S3 요청 없음)
+     * - 캐시 미적중: HEAD 요청만으로 판단 (본문 다운로드 없음)
+     * 범위 요청(Range): 캐시 파일이면 Spring이 206 처리, 아니면 S3에 범위 GET
+     * 형식 협상(Accept): WebP 등 변환본이 있으면 그 파일로 응답 (ImageTranscoder, Vary: Accept)
+     *
      * @param filename 조회할 파일의 이름
-     * @return 파일 데이터 스트림을 포함하는 ResponseEntity
+     * @return 파일 데이터 스트림을 포함하는 ResponseEntity (304이면 null)
      */
     @GetMapping("/{filename}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String filename) {
-        // GetObjectRequest를 사용하여 S3에서 객체를 가져옵니다.
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                .bucket(bucket)
-                .key(filename)
-                .build();
+    public ResponseEntity<Resource> downloadFile(@PathVariable String filename,
+                                                 @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 ServletWebRequest webRequest) {
+        if (!imageTranscoder.isNegotiable(filename)) {
+            return serve(filename, range, webRequest);
+        }
+        // 304, 오류 응답에도 붙도록 응답 객체에 바로 설정
+        webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Negotiation negotiation = imageTranscoder.negotiate(filename, accept);
+        boolean pending = negotiation.pending();
+        Optional<String> transcoded = negotiation.transcoded();
+        ResponseEntity<Resource> response;
+        if (transcoded.isPresent()) {
+            response = serve(transcoded.get(), range, webRequest);
+            if (response != null && response.getStatusCode() == HttpStatus.NOT_FOUND) {
+                imageTranscoder.evict(transcoded.get()); // 원본과 함께 삭제됨 → 원본으로 응답
+                pending = true;
+                response = serve(filename, range, webRequest);
+            }
+        } else {
+            response = serve(filename, range, webRequest);
+        }
+        return pending ? withPendingCacheControl(response, webRequest) : response;
+    }
+
+    /**
+     * 변환 중 → 원본을 오래 캐시하지 않도록 (변환본이 준비되면 같은 URL로 교체)
+     * inlineHeaders의 Cache-Control을 교체 (응답 객체와 ResponseEntity에 둘 다 넣으면 헤더가 두 번 나감)
+     */
+    private ResponseEntity<Resource> withPendingCacheControl(ResponseEntity<Resource> response,
+                                                             ServletWebRequest webRequest) {
+        if (response == null) { // 304: checkNotModified가 응답 객체에 바로 씀
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, ImageTranscoder.PENDING_CACHE_CONTROL);
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.set(HttpHeaders.CACHE_CONTROL, ImageTranscoder.PENDING_CACHE_CONTROL);
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    private ResponseEntity<Resource> serve(String filename, String range, ServletWebRequest webRequest) {
+        // 캐시 적중: S3 왕복 없이 로컬 파일로 응답
+        Optional<CachedImage> cached = imageDiskCache.get(filename);
+        if (cached.isPresent()) {
+            CachedImage image = cached.get();
+            if (webRequest.checkNotModified(image.eTag(), toMillis(image.lastModified()))) {
+                return null; // 304 (checkNotModified가 상태/헤더 설정)
+            }
+            if (range != null && !ifRangeMatches(webRequest.getHeader(HttpHeaders.IF_RANGE), image.eTag(), image.lastModified())) {
+                return fullFromCache(filename, image); // 클라이언트가 가진 부분과 다른 내용 → 전체
+            }
+            return fromCache(filename, image);
+        }
 
         try {
+            // 조건부 요청이면 HEAD로 먼저 확인 → 변경 없으면 본문을 받지 않음
+            if (isConditional(webRequest)) {
+                HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(filename)
+                        .build());
+                if (webRequest.checkNotModified(head.eTag(), toMillis(head.lastModified()))) {
+                    return null;
+                }
+            }
+
+            // 범위 요청: S3에 그대로 범위 GET (S3는 단일 범위만 지원)
+            if (range != null && !range.contains(",")) {
+                ResponseEntity<Resource> partial = downloadRange(filename, range, webRequest.getHeader(HttpHeaders.IF_RANGE));
+                if (partial != null) {
+                    return partial;
+                }
+                // If-Range 불일치 → 아래에서 전체 응답
+            }
+
+            // GetObjectRequest를 사용하여 S3에서 객체를 가져옵니다.
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(filename)
+                    .build();
+
             // S3Client.getObject는 ResponseInputStream을 반환합니다.
             ResponseInputStream<GetObjectResponse> s3Object = s3Client.getObject(getObjectRequest);
             GetObjectResponse s3ObjectResponse = s3Object.response(); // 객체 (메타데이터)
 
+            // 캐시 미적중: 캐시에 채운 뒤 캐시 파일로 응답 (너무 큰 파일은 그대로 스트리밍)
+            if (imageDiskCache.isCacheable(s3ObjectResponse.contentLength())) {
+                try (s3Object) {
+                    CachedImage image = imageDiskCache.put(filename, s3Object, s3ObjectResponse.contentType(),
+                            s3ObjectResponse.eTag(), s3ObjectResponse.lastModified());
+                    return fromCache(filename, image);
+                }
+            }
+
             // InputStream을 Spring의 Resource로 래핑합니다.
             InputStreamResource resource = new InputStreamResource(s3Object);
 
             // HTTP 응답 헤더를 설정합니다.
-            HttpHeaders headers = new HttpHeaders();
             // image/png, image/jpg ...
-            headers.setContentType(parseMediaType(s3ObjectResponse.contentType()));
-            headers.setContentLength(s3ObjectResponse.contentLength());
-
-            // (주소로 접근시) 이미지를 다운로드가 아니라, '바로 표시'로 하기 위해서
-            // 'Content-Disposition' 헤더를 'inline'으로 설정하여 브라우저에서 바로 이미지를 표시하도록 합니다.
-            // 다운로드 받게 하려면 'attachment; filename="' + filename + '"' 으로 설정합니다.
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+            HttpHeaders headers = inlineHeaders(filename, s3ObjectResponse.contentType(), s3ObjectResponse.contentLength(),
+                    s3ObjectResponse.eTag(), s3ObjectResponse.lastModified());
 
             return new ResponseEntity<>(resource, headers, HttpStatus.OK);
 
+        } catch (NoSuchKeyException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).build();
+            }
+            if (e.statusCode() == HttpStatus.NOT_FOUND.value()) { // HEAD 응답에는 오류 코드 본문이 없음
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            log.error("파일 다운로드 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (Exception e) {
             // 파일을 찾을 수 없거나 다른 오류 발생 시
             log.error("파일 다운로드 실패: {}", e.getMessage());
@@ -70,4 +197,126 @@ public class S3FileController {
         }
     }
 
+    /**
+     * S3 범위 GET → 206 Partial Content
+     *
+     * If-Range(이어받기): 클라이언트가 가진 부분과 같은 내용일 때만 범위 응답
+     * S3 GET은 If-Range를 받지 않으므로 ETag면 If-Match, 날짜면 If-Unmodified-Since로 보내고
+     * 412(내용이 바뀜)이면 null → 호출한 쪽에서 전체 응답
+     * S3가 범위를 무시하면(Content-Range 없음) 전체 내용이므로 200
+     */
+    private ResponseEntity<Resource> downloadRange(String filename, String range, String ifRange) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(filename)
+                .range(range);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"")) {
+                request.ifMatch(ifRange);
+            } else if (ifRange.startsWith("W/")) {
+                return null; // 약한 ETag는 If-Range에 쓸 수 없음 → 전체
+            } else {
+                Instant date = parseHttpDate(ifRange);
+                if (date == null) {
+                    return null;
+                }
+                request.ifUnmodifiedSince(date);
+            }
+        }
+
+        ResponseInputStream<GetObjectResponse> s3Object;
+        try {
+            s3Object = s3Client.getObject(request.build());
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpStatus.PRECONDITION_FAILED.value()) {
+                return null;
+            }
+            throw e;
+        }
+        GetObjectResponse response = s3Object.response();
+
+        HttpHeaders headers = inlineHeaders(filename, response.contentType(), response.contentLength(),
+                response.eTag(), response.lastModified());
+        if (response.contentRange() == null) {
+            // InputStreamResource는 Spring이 다시 범위 처리하지 않음
+            return new ResponseEntity<>(new InputStreamResource(s3Object), headers, HttpStatus.OK);
+        }
+        headers.set(HttpHeaders.CONTENT_RANGE, response.contentRange());
+        return new ResponseEntity<>(new InputStreamResource(s3Object), headers, HttpStatus.PARTIAL_CONTENT);
+    }
+
+    /**
+     * If-Range가 현재 내용과 같은지 (없으면 true)
+     * ETag는 강한 비교, 날짜는 Last-Modified와 초 단위로 같아야 함
+     */
+    private boolean ifRangeMatches(String ifRange, String eTag, Instant lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(eTag);
+        }
+        Instant date = parseHttpDate(ifRange);
+        return date != null && lastModified != null && date.getEpochSecond() == lastModified.getEpochSecond();
+    }
+
+    private Instant parseHttpDate(String value) {
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private ResponseEntity<Resource> fromCache(String filename, CachedImage image) {
+        HttpHeaders headers = inlineHeaders(filename, image.contentType(), image.size(),
+                image.eTag(), image.lastModified());
+        return new ResponseEntity<>(new FileSystemResource(image.path()), headers, HttpStatus.OK);
+    }
+
+    // 범위 처리 없이 전체 (FileSystemResource면 Spring이 Range 헤더로 206을 만듦)
+    private ResponseEntity<Resource> fullFromCache(String filename, CachedImage image) {
+        HttpHeaders headers = inlineHeaders(filename, image.contentType(), image.size(),
+                image.eTag(), image.lastModified());
+        try {
+            return new ResponseEntity<>(new InputStreamResource(Files.newInputStream(image.path())), headers, HttpStatus.OK);
+        } catch (IOException e) {
+            log.error("파일 다운로드 실패 (캐시): {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    private boolean isConditional(ServletWebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private long toMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : -1;
+    }
+
+    private HttpHeaders inlineHeaders(String filename, String contentType, long contentLength,
+                                      String eTag, Instant lastModified) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(parseMediaType(contentType));
+        headers.setContentLength(contentLength);
+
+        // 재요청 시 조건부 요청을 보낼 수 있도록 검증자 전달
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        if (lastModified != null) {
+            headers.setLastModified(lastModified);
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // 로컬 리소스 핸들러와 같은 1시간 (이후에는 조건부 요청으로 재검증)
+        headers.setCacheControl(CacheControl.maxAge(1, TimeUnit.HOURS));
+
+        // (주소로 접근시) 이미지를 다운로드가 아니라, '바로 표시'로 하기 위해서
+        // 'Content-Disposition' 헤더를 'inline'으로 설정하여 브라우저에서 바로 이미지를 표시하도록 합니다.
+        // 다운로드 받게 하려면 'attachment; filename="' + filename + '"' 으로 설정합니다.
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+        return headers;
+    }
+
 }
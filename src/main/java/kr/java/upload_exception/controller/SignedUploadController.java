@@ -0,0 +1,54 @@
+package kr.java.upload_exception.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import kr.java.upload_exception.service.LocalFileStorageService;
+import kr.java.upload_exception.service.LocalUploadPresigner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 로컬 저장소용 서명 업로드 수신 (S3 presigned PUT 대역)
+ * PUT /uploads/signed/{key}?size=&expires=&signature=
+ *
+ * 서명 주소는 한 번만 쓸 수 있음 (S3의 If-None-Match: *와 같음)
+ * 만료 전에 같은 주소로 다시 보내도 이미 올라간 파일을 덮어쓰지 않고 409
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "file.storage.type",
+        havingValue = "local",
+        matchIfMissing = true)
+public class SignedUploadController {
+    private final LocalUploadPresigner localUploadPresigner;
+    private final LocalFileStorageService localFileStorageService;
+
+    @PutMapping("/uploads/signed/{key}")
+    public ResponseEntity<Void> upload(@PathVariable String key,
+                                       @RequestParam long size,
+                                       @RequestParam long expires,
+                                       @RequestParam String signature,
+                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       HttpServletRequest request) throws IOException {
+        // 서명에 포함된 Content-Type/크기와 실제 요청이 같아야 함
+        if (!localUploadPresigner.verify(key, contentType, size, expires, signature)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (request.getContentLengthLong() != size) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (InputStream body = request.getInputStream()) {
+            if (!localFileStorageService.storeNew(key, body)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        }
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,168 @@
+package kr.java.upload_exception.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Validator;
+import kr.java.upload_exception.exception.FileStorageException;
+import kr.java.upload_exception.exception.InvalidFileTypeException;
+import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.service.ReviewService;
+import kr.java.upload_exception.service.SizeLimitedInputStream;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 리뷰 등록 - 스트리밍 업로드 (file.upload.streaming=true 일 때, form.jsp가 이 주소로 전송)
+ *
+ * 기본 방식(ReviewController.create)은 서블릿 컨테이너가 본문 전체를 임시 파일로 받아둔 뒤
+ * 저장소가 그 파일을 다시 읽음 → 업로드 한 건에 디스크 쓰기 + 읽기가 추가로 발생
+ * 이 방식은 multipart 본문을 앞에서부터 읽으면서 이미지 부분을 바로 FileStorageService로 흘려보냄
+ * - 형식 검증은 스트림 앞부분으로 (ImageContentValidator), 해시는 흘려보내면서 계산
+ * - 로컬: 저장 위치에 한 번만 씀, S3: 디스크를 거치지 않음 (내용 기반 저장 모드만 임시 파일 한 번)
+ *
+ * 본문을 직접 읽어야 하므로 컨테이너가 먼저 파싱하지 않도록
+ * spring.servlet.multipart.resolve-lazily=true (요청 파라미터에 접근하지 않으면 파싱하지 않음)
+ *
+ * 폼 필드(title, content, rating)는 파일보다 앞에 있어야 함 (form.jsp 순서)
+ * → 파일을 받기 전에 입력값을 검증하므로, 입력이 잘못되면 파일을 저장하지 않음
+ */
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/reviews")
+@ConditionalOnProperty(name = "file.upload.streaming", havingValue = "true")
+public class StreamingReviewController {
+    private final ReviewService reviewService;
+    private final MultipartProperties multipartProperties;
+    private final Validator validator;
+
+    // 텍스트 필드 최대 크기 (내용 TEXT 컬럼보다 충분히 큼)
+    private static final int MAX_FIELD_BYTES = 64 * 1024;
+
+    /**
+     * 리뷰 등록 처리 (스트리밍)
+     * POST /reviews/upload
+     */
+    @PostMapping("/upload")
+    public String create(HttpServletRequest request,
+                         Model model,
+                         RedirectAttributes redirectAttributes) throws IOException {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new MultipartException("multipart/form-data 요청이 아닙니다.");
+        }
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        upload.setSizeMax(multipartProperties.getMaxRequestSize().toBytes());
+        upload.setHeaderCharset(StandardCharsets.UTF_8);
+
+        Review review = new Review();
+        MutablePropertyValues values = new MutablePropertyValues();
+        try {
+            FileItemInputIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField()) {
+                    values.add(item.getFieldName(), readField(item));
+                    continue;
+                }
+                // 파일을 선택하지 않으면 이름이 빈 파일 부분이 옴
+                if (!"imageFile".equals(item.getFieldName()) || !StringUtils.hasText(item.getName())) {
+                    continue;
+                }
+
+                BindingResult bindingResult = bind(review, values);
+                if (bindingResult.hasErrors()) {
+                    return form(review, bindingResult, model);
+                }
+                // 이미지 받기 (나머지 부분은 읽지 않음)
+                SizeLimitedInputStream content = new SizeLimitedInputStream(item.getInputStream(),
+                        multipartProperties.getMaxFileSize().toBytes());
+                try {
+                    reviewService.create(review, content, item.getContentType());
+                } catch (FileStorageException e) {
+                    // 크기 초과로 저장이 중단된 경우 → 기본 방식과 같은 오류 처리 (GlobalExceptionHandler)
+                    if (content.isExceeded()) {
+                        throw new MaxUploadSizeExceededException(multipartProperties.getMaxFileSize().toBytes());
+                    }
+                    throw e;
+                }
+                return created(redirectAttributes);
+            }
+        } catch (FileUploadSizeException e) {
+            throw new MaxUploadSizeExceededException(multipartProperties.getMaxRequestSize().toBytes(), e);
+        } catch (InvalidFileTypeException e) {
+            // 파일 타입 오류: 사용자 입력 데이터 유지하며 폼으로 복귀
+            model.addAttribute("errorMessage", e.getMessage());
+            return form(review, null, model);
+        } catch (FileStorageException e) {
+            model.addAttribute("errorMessage", "파일 업로드 중 오류가 발생했습니다.");
+            return form(review, null, model);
+        }
+
+        // 이미지 없는 리뷰
+        BindingResult bindingResult = bind(review, values);
+        if (bindingResult.hasErrors()) {
+            return form(review, bindingResult, model);
+        }
+        reviewService.create(review, null);
+        return created(redirectAttributes);
+    }
+
+    private String created(RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("message", "리뷰가 등록되었습니다.");
+        return "redirect:/reviews";
+    }
+
+    private String form(Review review, BindingResult bindingResult, Model model) {
+        model.addAttribute("review", review);
+        model.addAttribute("pageName", "리뷰 작성");
+        model.addAttribute("streamingUpload", true);
+        if (bindingResult != null) {
+            model.addAttribute("bindingResult", bindingResult);
+        }
+        return "review/form";
+    }
+
+    /**
+     * 폼 값 → Review (@ModelAttribute와 같은 변환 + @Valid 검증)
+     * 입력 폼에 있는 필드만 바인딩 (id, imageUrl 등은 요청으로 바꿀 수 없음)
+     */
+    private BindingResult bind(Review review, MutablePropertyValues values) {
+        WebDataBinder binder = new WebDataBinder(review, "review");
+        binder.setAllowedFields("title", "content", "rating");
+        binder.setValidator(new SpringValidatorAdapter(validator));
+        binder.bind(values);
+        binder.validate();
+        return binder.getBindingResult();
+    }
+
+    private String readField(FileItemInput item) throws IOException {
+        try (InputStream in = item.getInputStream()) {
+            byte[] bytes = in.readNBytes(MAX_FIELD_BYTES + 1);
+            if (bytes.length > MAX_FIELD_BYTES) {
+                throw new MaxUploadSizeExceededException(MAX_FIELD_BYTES);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package kr.java.upload_exception.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.java.upload_exception.exception.FileStorageException;
+import kr.java.upload_exception.exception.GlobalExceptionHandler;
+import kr.java.upload_exception.exception.InvalidFileTypeException;
+import kr.java.upload_exception.model.dto.PresignedUpload;
+import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.service.DirectUploadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 직접 업로드 API (JSON)
+ *
+ * 1. POST /api/uploads               {contentType, size} → 서명된 업로드 요청
+ * 2. (브라우저) 응답의 url로 PUT     → 저장소에 바로 업로드
+ * 3. POST /api/reviews/{id}/image    {key}               → 검증 후 리뷰에 연결
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class UploadApiController {
+    private final DirectUploadService directUploadService;
+    private final MeterRegistry meterRegistry;
+
+    public record PresignRequest(String contentType, long size) {
+    }
+
+    public record CompleteRequest(String key) {
+    }
+
+    /**
+     * 이 컨트롤러의 예외는 오류 페이지(JSP) 대신 JSON으로 응답
+     * (컨트롤러의 @ExceptionHandler가 @ControllerAdvice보다 먼저 적용됨)
+     */
+    @ExceptionHandler({InvalidFileTypeException.class, FileStorageException.class})
+    public ResponseEntity<Map<String, String>> handleBadUpload(RuntimeException e) {
+        GlobalExceptionHandler.countRejection(meterRegistry, "api", e);
+        return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+    }
+
+    @PostMapping("/uploads")
+    public PresignedUpload presign(@RequestBody PresignRequest request) {
+        return directUploadService.issue(request.contentType(), request.size());
+    }
+
+    @PostMapping("/reviews/{id}/image")
+    public Map<String, String> complete(@PathVariable Long id, @RequestBody CompleteRequest request) {
+        Review review = directUploadService.complete(id, request.key());
+        return Map.of("imageUrl", review.getImageUrl());
+    }
+}
@@ -1,5 +1,6 @@
 package kr.java.upload_exception.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ui.Model;
@@ -17,6 +18,22 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 @Slf4j // Lombok: Logger 자동 생성 (log.error(...) 사용 가능)
 public class GlobalExceptionHandler {
 
+    // 업로드 거부 사유별 횟수 (upload.rejections, 태그 reason: 예외 클래스 이름)
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 업로드 거부 횟수 기록 (화면 업로드: channel=form, 직접 업로드 API: channel=api)
+     */
+    public static void countRejection(MeterRegistry meterRegistry, String channel, Exception e) {
+        meterRegistry.counter("upload.rejections",
+                "channel", channel,
+                "reason", e.getClass().getSimpleName()).increment();
+    }
+
     /**
      * 파일 크기 초과 예외 처리
      *
@@ -31,6 +48,7 @@ public class GlobalExceptionHandler {
         // 로그 기록 (WARN 레벨: 사용자 실수지만 시스템 이상은 아님)
         log.warn("파일 크기 초과 - IP: {}, URL: {}",
                 request.getRemoteAddr(), request.getRequestURI());
+        countRejection(meterRegistry, "form", e);
 
         model.addAttribute("errorMessage", "파일 크기가 너무 큽니다. (최대 10MB)");
         model.addAttribute("errorDetail", "더 작은 파일을 선택해주세요.");
@@ -44,6 +62,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(InvalidFileTypeException.class)
     public String handleInvalidFileType(InvalidFileTypeException e, Model model) {
         log.info("잘못된 파일 타입 업로드 시도: {}", e.getMessage());
+        countRejection(meterRegistry, "form", e);
 
         model.addAttribute("errorMessage", e.getMessage());
         model.addAttribute("errorDetail", "JPG, PNG, GIF, WebP 형식의 이미지만 업로드 가능합니다.");
@@ -58,6 +77,7 @@ public class GlobalExceptionHandler {
     public String handleFileStorage(FileStorageException e, Model model) {
         // ERROR 레벨: 시스템 문제 가능성
         log.error("파일 저장 실패: {}", e.getMessage());
+        countRejection(meterRegistry, "form", e);
 
         model.addAttribute("errorMessage", "파일 저장 중 문제가 발생했습니다.");
         model.addAttribute("errorDetail", "잠시 후 다시 시도해주세요.");
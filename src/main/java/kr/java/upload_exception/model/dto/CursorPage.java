@@ -0,0 +1,27 @@
+package kr.java.upload_exception.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 커서 기반 페이지 결과
+ *
+ * prevCursor / nextCursor 가 null이면 해당 방향으로 더 이상 페이지가 없음
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String prevCursor;
+    private final String nextCursor;
+
+    public boolean isHasPrev() {
+        return prevCursor != null;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
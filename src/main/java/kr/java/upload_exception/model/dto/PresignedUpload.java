@@ -0,0 +1,17 @@
+package kr.java.upload_exception.model.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 브라우저가 저장소로 직접 업로드할 때 사용할 서명된 요청 정보
+ *
+ * @param key       업로드 후 완료 요청에 다시 보낼 저장소 키
+ * @param url       업로드 주소 (서명 포함)
+ * @param method    HTTP 메서드 (PUT)
+ * @param headers   요청에 그대로 넣어야 하는 헤더 (서명에 포함된 Content-Type 등)
+ * @param expiresAt 서명 만료 시각
+ */
+public record PresignedUpload(String key, String url, String method,
+                              Map<String, String> headers, Instant expiresAt) {
+}
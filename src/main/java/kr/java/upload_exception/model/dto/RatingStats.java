@@ -0,0 +1,31 @@
+package kr.java.upload_exception.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 평점 통계 (전체 리뷰 수, 평균, 평점별 분포)
+ * JSP(EL)와 JSON 모두 getter로 접근
+ */
+@Getter
+@AllArgsConstructor
+public class RatingStats {
+    private final long count;
+    private final double average; // 리뷰가 없으면 0
+    private final List<Bucket> histogram; // 5점 → 1점 순서
+
+    /**
+     * 평점 한 칸
+     *
+     * percent: 전체 중 비율 (0~100, 막대 길이용)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Bucket {
+        private final int rating;
+        private final long count;
+        private final int percent;
+    }
+}
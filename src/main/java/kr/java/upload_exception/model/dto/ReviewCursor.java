@@ -0,0 +1,40 @@
+package kr.java.upload_exception.model.dto;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 키셋(커서) 페이지네이션 위치
+ *
+ * 정렬 기준(createdAt DESC, id DESC)의 마지막 값을 기억해 두고
+ * 다음 페이지는 "그보다 뒤에 오는 행"만 조회한다. (OFFSET 없이 인덱스 탐색)
+ * 문자열 형식: {createdAt(ISO-8601)}_{id}  예) 2025-12-12T01:02:03.456Z_42
+ */
+public record ReviewCursor(Instant createdAt, Long id) {
+
+    public static ReviewCursor of(ReviewSummary summary) {
+        return new ReviewCursor(summary.getCreatedAt(), summary.getId());
+    }
+
+    /**
+     * 쿼리 파라미터 문자열 → 커서
+     * 형식이 잘못되면 IllegalArgumentException (컨트롤러에서 404 처리)
+     */
+    public static ReviewCursor parse(String value) {
+        int separator = value.lastIndexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("잘못된 페이지 요청입니다.");
+        }
+        try {
+            return new ReviewCursor(
+                    Instant.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 페이지 요청입니다.");
+        }
+    }
+
+    public String encode() {
+        return createdAt + "_" + id;
+    }
+}
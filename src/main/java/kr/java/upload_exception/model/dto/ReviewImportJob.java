@@ -0,0 +1,116 @@
+package kr.java.upload_exception.model.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 리뷰 일괄 가져오기 진행 상황 (GET /api/reviews/import/{id} 응답)
+ *
+ * 가져오기 스레드가 갱신하고 조회 요청이 읽으므로 카운터는 Atomic, 오류 목록은 동기화
+ */
+@Getter
+public class ReviewImportJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * 실패한 행 (line: 파일의 줄 번호, 1부터)
+     */
+    public record RowError(long line, String message) {
+    }
+
+    // 응답이 너무 커지지 않도록 오류는 앞쪽 일부만 보관 (개수는 failed로 확인)
+    private static final int MAX_ERRORS = 1000;
+
+    private final String id;
+    private final String source;
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    // 작업 전체가 중단된 이유 (FAILED)
+    private volatile String failure;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong read = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong imported = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong failed = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final List<RowError> errors = new ArrayList<>();
+
+    public ReviewImportJob(String id, String source) {
+        this.id = id;
+        this.source = source;
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    public void finish(String failure) {
+        this.failure = failure;
+        finishedAt = Instant.now();
+        state = failure == null ? State.COMPLETED : State.FAILED;
+    }
+
+    public void rowRead() {
+        read.incrementAndGet();
+    }
+
+    public void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    public void rowFailed(long line, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    public long getRead() {
+        return read.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed.get() > MAX_ERRORS;
+    }
+
+    /**
+     * 분당 가져온 리뷰 수 (진행 중이면 지금까지 기준)
+     */
+    public long getReviewsPerMinute() {
+        if (startedAt == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return imported.get() * 60_000 / millis;
+    }
+}
@@ -0,0 +1,24 @@
+package kr.java.upload_exception.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * 리뷰 목록용 요약 정보 (프로젝션)
+ *
+ * 목록 화면에는 content(TEXT)가 필요 없으므로
+ * JPQL 생성자 표현식(select new ...)으로 필요한 컬럼만 조회한다.
+ * JSP(EL)에서 getter로 접근하므로 record 대신 일반 클래스를 사용
+ */
+@Getter
+@AllArgsConstructor
+public class ReviewSummary {
+    private final Long id;
+    private final String title;
+    private final Integer rating;
+    private final String imageUrl;
+    private final String thumbnailUrl;
+    private final Instant createdAt;
+}
@@ -0,0 +1,25 @@
+package kr.java.upload_exception.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 검색 결과 페이지 (검색 점수 순)
+ *
+ * totalExact가 false면 total은 "이상" (일치하는 문서가 많으면 전체를 세지 않음)
+ */
+@Getter
+@AllArgsConstructor
+public class SearchPage {
+    private final List<ReviewSummary> items;
+    private final long total;
+    private final boolean totalExact;
+    private final int page;
+    private final boolean hasNext;
+
+    public boolean isHasPrev() {
+        return page > 0;
+    }
+}
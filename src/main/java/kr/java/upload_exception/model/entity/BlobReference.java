@@ -0,0 +1,31 @@
+package kr.java.upload_exception.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 저장소 파일 참조 수 (file.storage.content-addressed=true 일 때 사용)
+ *
+ * 같은 내용의 파일은 하나만 저장되어 여러 리뷰가 공유하므로
+ * 마지막으로 쓰던 리뷰가 이미지를 바꾸거나 삭제될 때만 실제 파일을 지운다.
+ *
+ * prod(ddl-auto: validate)에서는 테이블 생성 필요
+ */
+@Entity
+@Table(name = "blob_reference")
+@Getter
+@NoArgsConstructor
+public class BlobReference {
+
+    // 저장소 키 (BaseEntity의 자동 증가 ID 대신 키 자체가 식별자)
+    @Id
+    @Column(name = "object_key")
+    private String objectKey;
+
+    @Column(nullable = false)
+    private int refCount;
+}
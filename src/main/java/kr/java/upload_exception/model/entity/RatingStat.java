@@ -0,0 +1,31 @@
+package kr.java.upload_exception.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 평점별 리뷰 수 (평점 통계 집계 테이블, 평점 1~5 각 한 행)
+ *
+ * 리뷰 등록/수정/삭제 트랜잭션 안에서 함께 증감하므로
+ * 통계 조회는 리뷰가 몇 건이든 이 테이블의 5행만 읽는다. (RatingStatsService)
+ *
+ * prod(ddl-auto: validate)에서는 테이블 생성 필요
+ * CREATE TABLE rating_stats (rating INT NOT NULL PRIMARY KEY, review_count BIGINT NOT NULL);
+ */
+@Entity
+@Table(name = "rating_stats")
+@Getter
+@NoArgsConstructor
+public class RatingStat {
+
+    // 평점 (1~5) 자체가 식별자
+    @Id
+    private Integer rating;
+
+    @Column(nullable = false)
+    private long reviewCount;
+}
@@ -2,6 +2,8 @@ package kr.java.upload_exception.model.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -11,6 +13,10 @@ import lombok.Setter;
 import org.hibernate.validator.constraints.Length;
 
 @Entity
+// 목록 키셋 페이지네이션용 인덱스 (created_at DESC, id DESC 정렬을 인덱스 역방향 스캔으로 처리)
+// ddl-auto: validate 환경(prod)에서는 직접 생성 필요
+// CREATE INDEX idx_review_created_at_id ON review (created_at, id);
+@Table(indexes = @Index(name = "idx_review_created_at_id", columnList = "created_at, id"))
 @Getter @Setter
 @NoArgsConstructor
 public class Review extends BaseEntity {
@@ -33,4 +39,10 @@ public class Review extends BaseEntity {
 
     // 업로드된 이미지 파일 경로
     private String imageUrl;
+
+    // 축소본 경로 (비동기 생성, 없으면 imageUrl 사용)
+    // prod(ddl-auto: validate)에서는 컬럼 추가 필요
+    // ALTER TABLE review ADD COLUMN thumbnail_url VARCHAR(255), ADD COLUMN display_url VARCHAR(255);
+    private String thumbnailUrl; // 목록용 (150px)
+    private String displayUrl;   // 상세용 (600px)
 }
@@ -0,0 +1,59 @@
+package kr.java.upload_exception.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 저장소 작업 대기열 (outbox)
+ *
+ * 파일 삭제/확정 같은 저장소 작업을 리뷰 변경과 "같은 트랜잭션"으로 기록해 두고
+ * 커밋된 뒤에 StorageOutboxProcessor가 실행한다.
+ * → 트랜잭션이 롤백되면 작업도 같이 사라지므로 이미지를 먼저 지워버리는 일이 없음
+ *
+ * prod(ddl-auto: validate)에서는 테이블 생성 필요
+ */
+@Entity
+@Table(name = "storage_outbox",
+        indexes = @Index(name = "idx_storage_outbox_due", columnList = "next_attempt_at"))
+@Getter
+@NoArgsConstructor
+public class StorageOutbox extends BaseEntity {
+
+    public enum Operation {
+        DELETE,  // 파일 삭제
+        PROMOTE, // 업로드된 파일 확정 대기 (기한 안에 확정되지 않으면 고아 파일로 보고 삭제)
+        RELEASE  // 공유 파일 참조 해제 (내용 기반 저장, 더 이상 참조가 없을 때만 축소본과 함께 삭제)
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Operation operation;
+
+    // 저장소 키 (key는 MySQL 예약어라 object_key)
+    @Column(nullable = false)
+    private String objectKey;
+
+    // 이 시각 이후에 실행 (재시도 대기, 확정 기한)
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    // 실패 횟수
+    private int attempts;
+
+    public StorageOutbox(Operation operation, String objectKey, Instant nextAttemptAt) {
+        this.operation = operation;
+        this.objectKey = objectKey;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * 실패 → 다음 시도 시각 예약
+     */
+    public void retryAt(Instant nextAttemptAt) {
+        this.attempts++;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
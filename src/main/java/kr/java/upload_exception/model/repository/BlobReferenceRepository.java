@@ -0,0 +1,48 @@
+package kr.java.upload_exception.model.repository;
+
+import jakarta.persistence.LockModeType;
+import kr.java.upload_exception.model.entity.BlobReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface BlobReferenceRepository extends JpaRepository<BlobReference, String> {
+
+    // 참조 추가 (없으면 1로 생성) - 동시에 같은 파일을 올려도 행 잠금으로 순서대로 증가
+    @Modifying
+    @Query(value = "insert into blob_reference (object_key, ref_count) values (:objectKey, 1) " +
+            "on duplicate key update ref_count = ref_count + 1", nativeQuery = true)
+    void increment(@Param("objectKey") String objectKey);
+
+    // 업로드 예약 (없으면 0으로 생성, 있으면 값은 그대로 두고 행만 잠금)
+    // 처리기가 이 행을 잠근 채 파일을 지우는 중이면 끝날 때까지 기다림 (StorageOutboxService.recordPendingPromotion)
+    @Modifying
+    @Query(value = "insert into blob_reference (object_key, ref_count) values (:objectKey, 0) " +
+            "on duplicate key update ref_count = ref_count", nativeQuery = true)
+    void reserve(@Param("objectKey") String objectKey);
+
+    // 참조 해제
+    @Modifying
+    @Query("update BlobReference b set b.refCount = b.refCount - 1 " +
+            "where b.objectKey = :objectKey and b.refCount > 0")
+    int decrement(@Param("objectKey") String objectKey);
+
+    @Query("select b.refCount from BlobReference b where b.objectKey = :objectKey")
+    Optional<Integer> findRefCount(@Param("objectKey") String objectKey);
+
+    // 삭제 여부 결정 + 파일 삭제 동안 잠금 (SELECT ... FOR UPDATE, StorageOutboxProcessor)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BlobReference b where b.objectKey = :objectKey")
+    Optional<BlobReference> findForUpdate(@Param("objectKey") String objectKey);
+
+    // 참조가 0이 된 행 정리 (StorageOutboxProcessor가 파일을 지운 트랜잭션 안에서 호출)
+    @Transactional
+    @Modifying
+    @Query("delete from BlobReference b where b.objectKey = :objectKey and b.refCount = 0")
+    int deleteIfUnreferenced(@Param("objectKey") String objectKey);
+}
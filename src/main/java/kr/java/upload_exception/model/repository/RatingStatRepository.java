@@ -0,0 +1,31 @@
+package kr.java.upload_exception.model.repository;
+
+import jakarta.persistence.LockModeType;
+import kr.java.upload_exception.model.entity.RatingStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RatingStatRepository extends JpaRepository<RatingStat, Integer> {
+
+    // 평점별 리뷰 수 증감 (행이 없으면 생성) - 같은 평점 행은 행 잠금으로 순서대로 반영
+    @Modifying
+    @Query(value = "insert into rating_stats (rating, review_count) values (:rating, :delta) " +
+            "on duplicate key update review_count = review_count + :delta", nativeQuery = true)
+    void add(@Param("rating") int rating, @Param("delta") long delta);
+
+    // 재계산 값으로 덮어쓰기
+    @Modifying
+    @Query(value = "insert into rating_stats (rating, review_count) values (:rating, :reviewCount) " +
+            "on duplicate key update review_count = :reviewCount", nativeQuery = true)
+    void overwrite(@Param("rating") int rating, @Param("reviewCount") long reviewCount);
+
+    // 재계산 중에는 증감을 막음 (평점 순서로 잠가서 리뷰 수정과 교착 상태가 생기지 않도록)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from RatingStat s order by s.rating")
+    List<RatingStat> findAllForUpdate();
+}
@@ -1,12 +1,93 @@
 package kr.java.upload_exception.model.repository;
 
+import jakarta.persistence.QueryHint;
+import kr.java.upload_exception.model.dto.ReviewSummary;
 import kr.java.upload_exception.model.entity.Review;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     // 최신순으로 리뷰 목록 조회
     List<Review> findAllByOrderByCreatedAtDesc();
+
+    // 이미 어떤 리뷰가 사용 중인 이미지인지
+    boolean existsByImageUrl(String imageUrl);
+
+    /*
+     * 키셋 페이지네이션 (createdAt DESC, id DESC)
+     * - content(TEXT) 컬럼은 조회하지 않도록 ReviewSummary 프로젝션 사용
+     * - (created_at, id) 인덱스를 타므로 페이지가 뒤로 가도 조회 비용이 일정함
+     * - Pageable은 LIMIT 용도로만 사용 (PageRequest.of(0, size))
+     */
+
+    // 첫 페이지
+    @Query("select new kr.java.upload_exception.model.dto.ReviewSummary(r.id, r.title, r.rating, r.imageUrl, r.thumbnailUrl, r.createdAt) " +
+            "from Review r order by r.createdAt desc, r.id desc")
+    List<ReviewSummary> findFirstPage(Pageable limit);
+
+    // 커서보다 오래된 리뷰 (다음 페이지)
+    @Query("select new kr.java.upload_exception.model.dto.ReviewSummary(r.id, r.title, r.rating, r.imageUrl, r.thumbnailUrl, r.createdAt) " +
+            "from Review r " +
+            "where r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id) " +
+            "order by r.createdAt desc, r.id desc")
+    List<ReviewSummary> findOlderThan(@Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id,
+                                      Pageable limit);
+
+    // 커서보다 최신 리뷰 (이전 페이지) - 커서에 가까운 순서(오름차순)로 가져온 뒤 서비스에서 뒤집음
+    @Query("select new kr.java.upload_exception.model.dto.ReviewSummary(r.id, r.title, r.rating, r.imageUrl, r.thumbnailUrl, r.createdAt) " +
+            "from Review r " +
+            "where r.createdAt > :createdAt or (r.createdAt = :createdAt and r.id > :id) " +
+            "order by r.createdAt asc, r.id asc")
+    List<ReviewSummary> findNewerThan(@Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id,
+                                      Pageable limit);
+
+    // 검색 결과 ID로 목록용 요약 조회 (순서는 서비스에서 검색 점수 순으로 맞춤)
+    @Query("select new kr.java.upload_exception.model.dto.ReviewSummary(r.id, r.title, r.rating, r.imageUrl, r.thumbnailUrl, r.createdAt) " +
+            "from Review r where r.id in :ids")
+    List<ReviewSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 검색 색인 전체 재생성용 (ID 순서로 끊어 읽기, OFFSET 없음)
+    List<Review> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limit);
+
+    /*
+     * 전체 내보내기용 (ID 순서, 한 번의 쿼리를 커서로 조금씩 읽음)
+     * - 호출한 트랜잭션 안에서 다 읽고 닫아야 함 (try-with-resources)
+     * - MySQL은 useCursorFetch=true 일 때만 fetch size만큼 나눠서 가져옴 (application-prod.yaml)
+     * - 읽기 전용: 변경 감지용 스냅샷을 만들지 않음
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r from Review r order by r.id asc")
+    Stream<Review> streamAll();
+
+    // 평점별 리뷰 수 (평점 통계 재계산용, 행마다 [rating, count])
+    @Query("select r.rating, count(r) from Review r group by r.rating")
+    List<Object[]> countByRating();
+
+    // 축소본 URL 기록 (비동기 작업에서 호출)
+    // 그 사이 이미지가 교체되었으면 imageUrl 조건에 걸려 0건 수정
+    @Transactional
+    @Modifying
+    @Query("update Review r set r.thumbnailUrl = :thumbnailUrl, r.displayUrl = :displayUrl " +
+            "where r.id = :id and r.imageUrl = :imageUrl")
+    int updateImageVariants(@Param("id") Long id,
+                            @Param("imageUrl") String imageUrl,
+                            @Param("thumbnailUrl") String thumbnailUrl,
+                            @Param("displayUrl") String displayUrl);
 }
@@ -0,0 +1,44 @@
+package kr.java.upload_exception.model.repository;
+
+import kr.java.upload_exception.model.entity.StorageOutbox;
+import kr.java.upload_exception.model.entity.StorageOutbox.Operation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface StorageOutboxRepository extends JpaRepository<StorageOutbox, Long> {
+
+    // 실행할 때가 된 작업 (오래된 순)
+    List<StorageOutbox> findByNextAttemptAtLessThanEqualOrderByIdAsc(Instant now, Pageable limit);
+
+    boolean existsByOperationAndObjectKey(Operation operation, String objectKey);
+
+    // 이 작업 말고 같은 키의 다른 작업이 있는지 (예: 같은 내용을 올린 다른 업로드의 확정 대기)
+    boolean existsByOperationAndObjectKeyAndIdNot(Operation operation, String objectKey, Long id);
+
+    // 작업 제거 (예: 업로드 확정 → PROMOTE 제거)
+    @Modifying
+    @Query("delete from StorageOutbox o where o.operation = :operation and o.objectKey = :objectKey")
+    int deleteByOperationAndObjectKey(@Param("operation") Operation operation,
+                                      @Param("objectKey") String objectKey);
+
+    // 여러 키 한 번에 제거 (일괄 가져오기 확정)
+    @Modifying
+    @Query("delete from StorageOutbox o where o.operation = :operation and o.objectKey in :objectKeys")
+    int deleteByOperationAndObjectKeyIn(@Param("operation") Operation operation,
+                                        @Param("objectKeys") Collection<String> objectKeys);
+
+    // 실행 시각 앞당기기 (예: 리뷰 저장 실패 → 업로드한 파일 바로 정리)
+    @Modifying
+    @Query("update StorageOutbox o set o.nextAttemptAt = :due " +
+            "where o.operation = :operation and o.objectKey = :objectKey")
+    int reschedule(@Param("operation") Operation operation,
+                   @Param("objectKey") String objectKey,
+                   @Param("due") Instant due);
+}
@@ -0,0 +1,70 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.repository.BlobReferenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 리뷰 ↔ 저장소 파일 연결 관리
+ *
+ * - 기본 모드: 파일마다 리뷰 하나 → 연결이 끊기면 바로 삭제 예약
+ * - 내용 기반 저장 모드(file.storage.content-addressed=true): 여러 리뷰가 같은 파일을 공유
+ *   → 참조 수(blob_reference)를 세고, 마지막 참조가 사라질 때만 삭제
+ *
+ * 모든 메서드는 리뷰 변경과 같은 트랜잭션에서 호출 (롤백되면 참조 수도 그대로)
+ */
+@Service
+@RequiredArgsConstructor
+public class BlobReferenceService {
+
+    private final BlobReferenceRepository blobReferenceRepository;
+    private final StorageOutboxService storageOutboxService;
+
+    @Value("${file.storage.content-addressed:false}")
+    private boolean contentAddressed;
+
+    /**
+     * 리뷰가 파일을 쓰기 시작 (업로드 확정)
+     */
+    @Transactional
+    public void acquire(String key) {
+        storageOutboxService.confirmPromotion(key);
+        if (contentAddressed) {
+            blobReferenceRepository.increment(key);
+        }
+    }
+
+    /**
+     * 여러 리뷰가 파일을 쓰기 시작 (일괄 가져오기, 같은 키가 여러 번 있으면 그만큼 참조)
+     */
+    @Transactional
+    public void acquireAll(List<String> keys) {
+        storageOutboxService.confirmPromotions(keys);
+        if (contentAddressed) {
+            keys.forEach(blobReferenceRepository::increment);
+        }
+    }
+
+    /**
+     * 리뷰가 파일을 더 이상 쓰지 않음 (이미지 교체, 리뷰 삭제)
+     * 축소본 키는 원본 키에서 계산되므로 함께 삭제 (아직 안 만들어졌어도 무해)
+     */
+    @Transactional
+    public void release(String key) {
+        if (contentAddressed) {
+            // 참조 수 확인과 삭제는 커밋 후 StorageOutboxProcessor에서
+            // (참조 행이 없는 파일 = 이 모드를 켜기 전에 올린 파일 → 바로 삭제 대상)
+            blobReferenceRepository.decrement(key);
+            storageOutboxService.enqueueRelease(key);
+            return;
+        }
+        storageOutboxService.enqueueDelete(key);
+        for (String derivedKey : ImageVariant.derivedKeys(key)) {
+            storageOutboxService.enqueueDelete(derivedKey);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package kr.java.upload_exception.service;
+
+import java.util.function.Consumer;
+
+/**
+ * 캐시 무효화 전달 통로 (여러 서버의 캐시를 함께 비우기 위함)
+ *
+ * publish한 메시지는 자신을 포함한 모든 서버의 구독자에게 전달되어야 한다.
+ * 기본 구현은 LocalCacheInvalidationBus (이 서버 안에서만 전달)
+ * 여러 서버로 운영할 때는 Redis pub/sub 등으로 구현하고 review.cache.invalidation 값으로 선택
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * 모든 서버에 무효화 알림
+     */
+    void publish(ReviewChangedEvent event);
+
+    /**
+     * 무효화 알림 수신 (이 서버에서 보낸 것 포함)
+     */
+    void subscribe(Consumer<ReviewChangedEvent> listener);
+}
@@ -0,0 +1,30 @@
+package kr.java.upload_exception.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * 내용 기반 키 (file.storage.content-addressed=true 일 때)
+ *
+ * 키 = SHA-256(파일 내용) + 확장자 → 같은 파일은 몇 번을 올려도 한 번만 저장
+ * 확장자는 소문자로 맞춤 (a.JPG와 b.jpg가 같은 키가 되도록)
+ */
+final class ContentAddress {
+
+    private ContentAddress() {
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String key(MessageDigest digest, String extension) {
+        return HexFormat.of().formatHex(digest.digest()) + extension.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,106 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.exception.FileStorageException;
+import kr.java.upload_exception.exception.InvalidFileTypeException;
+import kr.java.upload_exception.model.dto.PresignedUpload;
+import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.service.UploadPresigner.UploadedObject;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 브라우저 → 저장소 직접 업로드
+ *
+ * 1. issue(): 형식/크기를 확인하고 새 키로 서명된 업로드 요청 발급
+ * 2. 브라우저가 저장소에 직접 PUT (앱 서버를 거치지 않음)
+ * 3. complete(): 업로드된 객체를 다시 확인한 뒤 리뷰에 연결
+ */
+@Service
+@RequiredArgsConstructor
+public class DirectUploadService {
+
+    // 발급한 키 형식 (UUID + 확장자) - 다른 경로를 연결하지 못하도록
+    private static final Pattern ISSUED_KEY = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.(jpg|png|gif|webp)");
+
+    private final UploadPresigner uploadPresigner;
+    private final ReviewService reviewService;
+    private final StorageOutboxService storageOutboxService;
+    private final FileStorageService fileStorageService;
+    private final ImageContentValidator imageContentValidator;
+
+    // 일반 업로드와 같은 크기 제한
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    @Value("${file.presign.ttl:10m}")
+    private Duration ttl;
+
+    /**
+     * 업로드 요청 발급
+     */
+    public PresignedUpload issue(String contentType, long size) {
+        ImageType type = imageContentValidator.checkDeclared(contentType);
+        checkSize(size);
+        String key = UUID.randomUUID() + type.getExtension();
+        // 완료 요청이 오지 않으면 서명 유효 시간 + 여유 시간 뒤 정리
+        storageOutboxService.recordPendingPromotion(key, ttl);
+        return uploadPresigner.presign(key, contentType, size, ttl);
+    }
+
+    /**
+     * 업로드 완료 → 객체 검증 후 리뷰에 연결
+     */
+    public Review complete(Long reviewId, String key) {
+        if (key == null || !ISSUED_KEY.matcher(key).matches()) {
+            throw new FileStorageException("잘못된 업로드 키입니다.");
+        }
+        // 검증은 연결 트랜잭션 안에서 (이미 다른 리뷰에 연결된 키인지 확인한 뒤)
+        // 업로드 주소는 한 번만 쓸 수 있으므로 검증한 내용이 연결되는 내용
+        return reviewService.attachImage(reviewId, key, () -> verify(key));
+    }
+
+    /**
+     * 업로드된 객체 확인: 형식(발급한 키의 확장자와 같아야 함), 크기, 실제 내용
+     */
+    private void verify(String key) {
+        UploadedObject uploaded = uploadPresigner.findUploaded(key)
+                .orElseThrow(() -> new FileStorageException("업로드된 파일을 찾을 수 없습니다."));
+        ImageType declared = imageContentValidator.checkDeclared(uploaded.contentType());
+        if (ImageType.fromFilename(key).orElse(null) != declared) {
+            throw new InvalidFileTypeException("파일 내용이 형식(" + declared.getContentType() + ")과 일치하지 않습니다.");
+        }
+        checkSize(uploaded.size());
+        checkContent(key, declared);
+    }
+
+    /**
+     * 저장소에 올라간 파일의 앞부분만 읽어 실제 형식 확인
+     * (서버를 거치지 않고 올라왔으므로 여기서 처음 내용을 봄, 불합격 파일은 확정되지 않아 대기열이 정리)
+     */
+    private void checkContent(String key, ImageType declared) {
+        byte[] head;
+        try (InputStream in = fileStorageService.load(key)) {
+            head = in.readNBytes(ImageContentValidator.HEADER_SIZE);
+        } catch (IOException e) {
+            throw new FileStorageException("업로드된 파일을 읽을 수 없습니다.");
+        }
+        imageContentValidator.check(declared, head, head.length);
+    }
+
+    private void checkSize(long size) {
+        if (size <= 0) {
+            throw new FileStorageException("빈 파일은 업로드할 수 없습니다.");
+        }
+        if (size > maxFileSize.toBytes()) {
+            throw new FileStorageException("파일 크기가 너무 큽니다. (최대 " + maxFileSize.toMegabytes() + "MB)");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package kr.java.upload_exception.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FileStorageService 호출 측정 (MetricsConfig가 저장소 Bean을 프록시로 감쌈)
+ *
+ * - storage.operations (Timer): 작업별 소요 시간, 백분위 히스토그램 (p50/p99 등은 Prometheus에서 계산)
+ *   태그 backend(local/s3), operation(store, delete...), outcome(success/error), exception(예외 클래스 이름)
+ * - storage.bytes (Counter): 저장에 성공한 바이트 수 (store, storeAt, 스트림 저장은 읽은 바이트)
+ * - storage.in.flight (Gauge): 지금 진행 중인 호출 수 (S3가 느려지면 먼저 늘어남)
+ *
+ * 태그 값은 메서드 이름, 예외 클래스 이름처럼 종류가 정해진 것만 사용 (키, 파일명은 넣지 않음)
+ * 구현체 안에서 자기 메서드를 부르는 경우(store 안의 exists 등)는 측정하지 않음
+ */
+public class FileStorageMetrics implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String backend;
+
+    // FileStorageService 메서드가 아닌 호출 표시
+    private static final Operation NONE = new Operation(null, null, null, null);
+
+    // 구현체 메서드 → 작업
+    private final Map<Method, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<String, Operation> byName = new ConcurrentHashMap<>();
+
+    public FileStorageMetrics(MeterRegistry meterRegistry, String backend) {
+        this.meterRegistry = meterRegistry;
+        this.backend = backend;
+        for (Method method : FileStorageService.class.getMethods()) {
+            byName.computeIfAbsent(method.getName(), this::register);
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Operation operation = operations.computeIfAbsent(invocation.getMethod(), this::operationOf);
+        if (operation == NONE) {
+            return invocation.proceed();
+        }
+
+        // 크기를 모르는 스트림 저장은 읽은 만큼 셈
+        CountingInputStream counting = null;
+        Object[] args = invocation.getArguments();
+        if (args.length > 0 && args[0] instanceof InputStream in) {
+            counting = new CountingInputStream(in);
+            args[0] = counting;
+        }
+
+        operation.inFlight().incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            operation.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (operation.bytes() != null) {
+                operation.bytes().increment(counting != null ? counting.count : bytesOf(invocation));
+            }
+            return result;
+        } catch (Throwable e) {
+            // 예외 종류는 몇 개뿐이라 태그로 써도 시계열 수가 늘지 않음 (Timer는 레지스트리가 재사용)
+            timer(operation.name(), "error", e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } finally {
+            operation.inFlight().decrementAndGet();
+        }
+    }
+
+    private Operation operationOf(Method method) {
+        // 프록시가 구현체 클래스 기준(CGLIB)이라 구현체 전용 메서드(resolve 등)도 여기로 들어옴
+        if (ReflectionUtils.findMethod(FileStorageService.class, method.getName(), method.getParameterTypes()) == null) {
+            return NONE;
+        }
+        return byName.get(method.getName());
+    }
+
+    private long bytesOf(MethodInvocation invocation) {
+        Object[] args = invocation.getArguments();
+        return switch (invocation.getMethod().getName()) {
+            case "store" -> args[0] instanceof MultipartFile file ? file.getSize() : 0;
+            case "storeAt" -> (long) args[2];
+            default -> 0;
+        };
+    }
+
+    private Timer timer(String operation, String outcome, String exception) {
+        return Timer.builder("storage.operations")
+                .description("FileStorageService 호출 시간")
+                .tag("backend", backend)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    /**
+     * 작업별 미터 (성공 Timer, 바이트, 진행 중 수는 미리 만들어 둠)
+     */
+    private Operation register(String name) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("storage.in.flight", inFlight, AtomicInteger::get)
+                .description("진행 중인 FileStorageService 호출 수")
+                .tag("backend", backend)
+                .tag("operation", name)
+                .register(meterRegistry);
+        // 바이트 수는 저장 작업만 (store, storeAt)
+        Counter bytes = !name.startsWith("store") ? null : Counter.builder("storage.bytes")
+                .description("저장소에 쓴 바이트 수")
+                .baseUnit("bytes")
+                .tag("backend", backend)
+                .tag("operation", name)
+                .register(meterRegistry);
+        return new Operation(name, timer(name, "success", "none"), bytes, inFlight);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    private record Operation(String name, Timer success, Counter bytes, AtomicInteger inFlight) {
+    }
+}
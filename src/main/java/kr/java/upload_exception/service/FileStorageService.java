@@ -2,6 +2,10 @@ package kr.java.upload_exception.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * 파일 저장소 추상화 인터페이스
  *
@@ -14,15 +18,46 @@ public interface FileStorageService {
 
     /**
      * 파일 저장
+     * 키를 정한 뒤 파일을 쓰기 전에 "확정 대기"를 기록함 (StorageOutboxService.recordPendingPromotion)
+     * → 호출한 쪽은 리뷰 저장 트랜잭션에서 확정(BlobReferenceService.acquire)만 하면 됨
      * @return 저장된 파일의 키(식별자)
      */
     String store(MultipartFile file); // -> uploads나 s3상에서 호출할 수 있는 key
 
+    /**
+     * 요청 본문 스트림을 그대로 저장 (크기를 모름, 임시 파일로 받아두지 않은 업로드)
+     * 형식 검증, 확정 대기 기록은 store(MultipartFile)와 같음, 스트림은 호출한 쪽에서 close
+     * @return 저장된 파일의 키(식별자)
+     */
+    String store(InputStream content, String contentType);
+
+    /**
+     * 지정한 키로 파일 저장 (썸네일처럼 서버에서 만든 파생 파일용)
+     * 업로드 검증은 하지 않으므로 사용자 입력을 그대로 넘기면 안 됨
+     */
+    void storeAt(String key, InputStream content, long size, String contentType);
+
+    /**
+     * 저장된 파일 읽기 (호출한 쪽에서 close)
+     */
+    InputStream load(String key);
+
+    /**
+     * 파일 존재 여부
+     */
+    boolean exists(String key);
+
     /**
      * 파일 삭제
      */
     void delete(String key);
 
+    /**
+     * 여러 파일 한 번에 삭제 (없는 파일은 성공으로 취급)
+     * @return 삭제하지 못한 키 (재시도 대상)
+     */
+    Set<String> deleteAll(Collection<String> keys);
+
     /**
      * 파일 접근 URL 반환
      * 로컬: /images/xxx.jpg
@@ -0,0 +1,172 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.exception.InvalidFileTypeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Iterator;
+
+/**
+ * 업로드 이미지 내용 검증 (모든 저장소 공통)
+ *
+ * 클라이언트가 보낸 Content-Type은 얼마든지 속일 수 있으므로
+ * 스트림 앞부분(HEADER_SIZE 바이트)만 먼저 읽어 실제 형식과 비교한다.
+ * - 읽은 바이트는 스트림에 되돌려 놓으므로 저장할 때 다시 읽거나 복사하지 않음
+ * - 형식이 다르면 본문을 저장하기 전에 거부
+ * - 헤더에 크기가 있는 형식(PNG, GIF, WebP)은 가로/세로 크기도 확인 (JPEG는 크기 정보가 뒤쪽에 있어 생략)
+ * - 서버에서 디코딩할 때는 decode()로 모든 형식의 크기를 디코딩 전에 확인
+ */
+@Component
+public class ImageContentValidator {
+
+    // 형식 판별 + 크기 확인에 필요한 앞부분 길이 (WebP VP8 헤더까지)
+    public static final int HEADER_SIZE = 30;
+
+    // 가로/세로 최대 픽셀 (압축 폭탄 방지: 작은 파일이 디코딩 시 거대한 이미지가 되는 경우)
+    private final int maxDimension;
+    // 서버에서 디코딩할 최대 픽셀 수 (축소본, 형식 변환), 가로 x 세로
+    private final long maxPixels;
+
+    public ImageContentValidator(@Value("${file.upload.max-dimension:10000}") int maxDimension,
+                                 @Value("${file.upload.max-pixels:25000000}") long maxPixels) {
+        this.maxDimension = maxDimension;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * 검증된 스트림
+     * @param type   실제 내용으로 판별한 형식
+     * @param stream 앞부분을 되돌려 놓은 원래 스트림 (처음부터 읽힘)
+     */
+    public record Validated(ImageType type, InputStream stream) {
+    }
+
+    /**
+     * 선언된 형식이 허용 목록에 있는지 확인 (내용을 보기 전 1차 검사)
+     */
+    public ImageType checkDeclared(String contentType) {
+        return ImageType.fromContentType(contentType)
+                .orElseThrow(() -> new InvalidFileTypeException(
+                        "허용되지 않는 파일 형식입니다. (허용: " + ImageType.ALLOWED_DESCRIPTION + ")"));
+    }
+
+    /**
+     * 스트림 앞부분으로 형식 검증
+     * 실패하면 InvalidFileTypeException (스트림은 호출한 쪽에서 닫음)
+     */
+    public Validated validate(InputStream in, String declaredContentType) throws IOException {
+        ImageType declared = checkDeclared(declaredContentType);
+        PushbackInputStream stream = new PushbackInputStream(in, HEADER_SIZE);
+        byte[] head = stream.readNBytes(HEADER_SIZE);
+        stream.unread(head);
+        return new Validated(check(declared, head, head.length), stream);
+    }
+
+    /**
+     * 이미 읽은 앞부분으로 검증 (저장소에 직접 올라간 파일 확인용)
+     */
+    public ImageType check(ImageType declared, byte[] head, int length) {
+        ImageType actual = ImageType.detect(head, length)
+                .orElseThrow(() -> new InvalidFileTypeException("이미지 파일이 아닙니다."));
+        if (actual != declared) {
+            throw new InvalidFileTypeException("파일 내용이 형식(" + declared.getContentType() + ")과 일치하지 않습니다.");
+        }
+        checkDimensions(actual, head, length);
+        return actual;
+    }
+
+    /**
+     * 서버에서 이미지 디코딩 (축소본, 형식 변환용)
+     * 헤더에서 가로/세로만 먼저 읽고, 최대 크기/픽셀 수를 넘으면 픽셀 버퍼를 만들기 전에 거부
+     * (JPEG처럼 업로드 때 크기를 확인하지 못한 형식, 직접 업로드/일괄 가져오기 파일도 여기서 막힘)
+     *
+     * @return 디코딩한 이미지 (ImageIO가 지원하지 않는 형식이면 null)
+     * @throws InvalidFileTypeException 크기 초과 (스트림은 호출한 쪽에서 닫음)
+     */
+    public BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = imageIn == null ? null : ImageIO.getImageReaders(imageIn);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || width > maxDimension || height > maxDimension
+                        || (long) width * height > maxPixels) {
+                    throw new InvalidFileTypeException("이미지 크기가 허용 범위를 벗어났습니다. ("
+                            + width + "x" + height + ", 최대 " + maxPixels + "픽셀)");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void checkDimensions(ImageType type, byte[] head, int length) {
+        int width;
+        int height;
+        switch (type) {
+            case PNG -> {
+                // IHDR: 16~23 (빅엔디언)
+                if (length < 24) return;
+                width = int32be(head, 16);
+                height = int32be(head, 20);
+            }
+            case GIF -> {
+                // 논리 화면 크기: 6~9 (리틀엔디언)
+                if (length < 10) return;
+                width = uint16le(head, 6);
+                height = uint16le(head, 8);
+            }
+            case WEBP -> {
+                if (length < HEADER_SIZE) return;
+                if (ImageType.startsWith(head, length, 12, 'V', 'P', '8', 'X')) {
+                    // 확장 형식: 24~29 (각 24비트, 실제 값 - 1)
+                    width = uint24le(head, 24) + 1;
+                    height = uint24le(head, 27) + 1;
+                } else if (ImageType.startsWith(head, length, 12, 'V', 'P', '8', 'L')) {
+                    // 무손실: 21~24에 14비트씩 (실제 값 - 1)
+                    int bits = (head[21] & 0xFF) | (head[22] & 0xFF) << 8 | (head[23] & 0xFF) << 16 | (head[24] & 0xFF) << 24;
+                    width = (bits & 0x3FFF) + 1;
+                    height = (bits >>> 14 & 0x3FFF) + 1;
+                } else if (ImageType.startsWith(head, length, 12, 'V', 'P', '8', ' ')) {
+                    // 손실: 26~29 (14비트)
+                    width = uint16le(head, 26) & 0x3FFF;
+                    height = uint16le(head, 28) & 0x3FFF;
+                } else {
+                    return;
+                }
+            }
+            default -> {
+                return;
+            }
+        }
+        if (width <= 0 || height <= 0 || width > maxDimension || height > maxDimension) {
+            throw new InvalidFileTypeException("이미지 크기가 허용 범위를 벗어났습니다. (최대 "
+                    + maxDimension + "x" + maxDimension + ")");
+        }
+    }
+
+    private static int int32be(byte[] b, int i) {
+        return (b[i] & 0xFF) << 24 | (b[i + 1] & 0xFF) << 16 | (b[i + 2] & 0xFF) << 8 | (b[i + 3] & 0xFF);
+    }
+
+    private static int uint16le(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8;
+    }
+
+    private static int uint24le(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16;
+    }
+}
@@ -0,0 +1,353 @@
+package kr.java.upload_exception.service;
+
+import jakarta.annotation.PreDestroy;
+import kr.java.upload_exception.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * S3 이미지 로컬 디스크 캐시 (read-through, LRU)
+ *
+ * - S3FileController가 조회 시 먼저 확인하고, 없으면 S3에서 받아 채운다.
+ * - 전체 용량이 max-bytes를 넘으면 가장 오래 안 쓴 파일부터 삭제
+ *   캐시에서 뺀 파일은 바로 지우지 않고 이름만 바꿔 두었다가 delete-delay 뒤 삭제
+ *   (get()으로 경로를 받은 요청이 파일을 열기 전에 지워져 응답이 실패하지 않도록)
+ * - 인덱스 파일(LRU 순서)을 주기적으로(index-save-interval)와 종료 시 기록, 재시작 시 그대로 복원 (캐시 예열)
+ *   비정상 종료여도 마지막 기록 시점까지의 캐시는 복원됨
+ * - 키는 UUID 기반이라 내용이 바뀌지 않으므로 삭제 시에만 무효화하면 됨
+ * - S3의 ETag/Last-Modified도 함께 보관 → 조건부 요청(304)을 S3 조회 없이 처리
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "s3")
+public class ImageDiskCache {
+
+    private static final String INDEX_FILE = "index.tsv";
+    // 캐시에서 빠졌지만 아직 지우지 않은 파일 (재시작 시 인덱스에 없으므로 정리됨)
+    private static final String RETIRED_PREFIX = "evicted-";
+
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // accessOrder=true: get() 할 때마다 맨 뒤로 이동 → 맨 앞이 가장 오래 안 쓴 항목
+    private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    // 마지막 인덱스 기록 이후 추가/삭제가 있었는지
+    private boolean dirty;
+
+    private record Retired(Path path, long retiredAt) {
+    }
+
+    // 삭제 대기 파일 (빠진 순서 = 삭제할 순서)
+    private final Queue<Retired> retired = new ConcurrentLinkedQueue<>();
+    private final Duration deleteDelay;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ImageDiskCache(@Value("${file.cache.dir:cache/images}") String cacheDir,
+                          @Value("${file.cache.max-bytes:1073741824}") long maxBytes,
+                          @Value("${file.cache.delete-delay:1m}") Duration deleteDelay) {
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.deleteDelay = deleteDelay;
+        this.maxEntryBytes = maxBytes / 4; // 큰 파일 하나가 캐시를 다 밀어내지 않도록
+        try {
+            Files.createDirectories(this.cacheDir);
+        } catch (IOException e) {
+            throw new FileStorageException("캐시 디렉토리를 생성할 수 없습니다.");
+        }
+        loadIndex();
+    }
+
+    /**
+     * 캐시된 파일 정보
+     * @param path        로컬 파일 경로
+     * @param size        바이트 수
+     * @param contentType MIME 타입
+     * @param eTag        S3 ETag (따옴표 포함)
+     * @param lastModified S3 최종 수정 시각
+     */
+    public record CachedImage(Path path, long size, String contentType, String eTag, Instant lastModified) {
+    }
+
+    /**
+     * 캐시 조회 (적중/미적중 카운트)
+     */
+    public Optional<CachedImage> get(String key) {
+        CachedImage image;
+        synchronized (this) {
+            image = entries.get(key);
+        }
+        if (image == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(image);
+    }
+
+    /**
+     * 이 크기의 파일을 캐시에 담을지 여부
+     */
+    public boolean isCacheable(long size) {
+        return size > 0 && size <= maxEntryBytes;
+    }
+
+    /**
+     * 스트림을 캐시 파일로 저장하고 등록
+     * 임시 파일에 다 쓴 뒤 이동하므로 다른 요청이 쓰다 만 파일을 읽는 일은 없음
+     * 이동은 등록과 함께 잠금 안에서 (같은 경로를 캐시에서 빼는 evict와 순서가 섞이지 않도록)
+     */
+    public CachedImage put(String key, InputStream content, String contentType, String eTag, Instant lastModified) {
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+        Path target = fileFor(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(cacheDir, "fill-", ".tmp");
+            long size = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+
+            CachedImage image = new CachedImage(target, size, contentType, eTag, lastModified);
+            synchronized (this) {
+                // 이미 열려 있는 이전 파일은 읽던 요청이 끝날 때까지 유지됨
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                CachedImage previous = entries.put(key, image);
+                if (previous != null) {
+                    currentBytes -= previous.size(); // 동시에 같은 키를 채운 경우 (같은 파일로 덮어씀)
+                }
+                currentBytes += size;
+                dirty = true;
+                evictOverflow(key);
+            }
+            return image;
+        } catch (IOException e) {
+            if (temp != null) {
+                deleteQuietly(List.of(temp));
+            }
+            throw new FileStorageException("캐시 저장 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 캐시에서 제거 (원본 삭제 시)
+     */
+    public synchronized void evict(String key) {
+        CachedImage removed = entries.remove(key);
+        if (removed != null) {
+            currentBytes -= removed.size();
+            dirty = true;
+            retire(removed.path());
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    // 최대 용량을 넘는 만큼 오래된 것부터 제거 (방금 넣은 키는 제외), 동기화 블록 안에서 호출
+    private void evictOverflow(String justAdded) {
+        var iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, CachedImage> eldest = iterator.next();
+            if (eldest.getKey().equals(justAdded)) {
+                continue;
+            }
+            iterator.remove();
+            currentBytes -= eldest.getValue().size();
+            dirty = true;
+            retire(eldest.getValue().path());
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 캐시에서 뺀 파일을 삭제 대기 이름으로 변경 (동기화 블록 안에서 호출)
+     * 같은 키를 다시 채우면 원래 경로에 새 파일이 생기므로 나중에 지울 때 새 파일을 지우지 않음
+     */
+    private void retire(Path path) {
+        Path target = cacheDir.resolve(RETIRED_PREFIX + UUID.randomUUID());
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+            retired.add(new Retired(target, System.nanoTime()));
+        } catch (NoSuchFileException e) {
+            // 이미 없음
+        } catch (IOException e) {
+            log.warn("캐시 파일 정리 실패: {}, {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * delete-delay가 지난 삭제 대기 파일 삭제
+     * (그 사이 파일을 연 요청은 계속 읽을 수 있음 - 열린 파일은 삭제해도 닫을 때까지 유지)
+     */
+    @Scheduled(fixedDelayString = "${file.cache.delete-delay:1m}")
+    public void purgeRetired() {
+        long now = System.nanoTime();
+        Retired head;
+        while ((head = retired.peek()) != null && now - head.retiredAt() >= deleteDelay.toNanos()) {
+            retired.poll();
+            deleteQuietly(List.of(head.path()));
+        }
+    }
+
+    // 키 → 캐시 파일 (키를 해시해서 파일명으로 사용: 경로 조작 방지)
+    private Path fileFor(String key) {
+        return cacheDir.resolve(DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void deleteQuietly(List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("캐시 파일 삭제 실패: {}", path);
+            }
+        }
+    }
+
+    /**
+     * 재시작 시 인덱스 파일로 캐시 복원
+     * 인덱스에 없는 파일(비정상 종료 등)은 정리
+     */
+    private void loadIndex() {
+        Path index = cacheDir.resolve(INDEX_FILE);
+        Set<Path> known = new HashSet<>();
+        if (Files.exists(index)) {
+            try (BufferedReader reader = Files.newBufferedReader(index)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // key, size, contentType, eTag, lastModified(epoch ms)
+                    String[] parts = line.split("\t", -1);
+                    if (parts.length != 5) {
+                        continue;
+                    }
+                    String key = parts[0];
+                    Path path = fileFor(key);
+                    long size = Long.parseLong(parts[1]);
+                    String eTag = parts[3].isEmpty() ? null : parts[3];
+                    long lastModified = Long.parseLong(parts[4]);
+                    if (Files.exists(path) && Files.size(path) == size) {
+                        entries.put(key, new CachedImage(path, size, parts[2], eTag,
+                                lastModified > 0 ? Instant.ofEpochMilli(lastModified) : null));
+                        currentBytes += size;
+                        known.add(path);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                log.warn("캐시 인덱스를 읽지 못해 비우고 시작합니다: {}", e.getMessage());
+                entries.clear();
+                currentBytes = 0;
+                known.clear();
+            }
+        }
+        // 설정 용량이 줄어든 경우 대비 (빠진 파일은 아래에서 인덱스에 없는 파일로 정리)
+        evictOverflow(null);
+        retired.clear();
+        known.removeIf(path -> !Files.exists(path));
+
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.filter(path -> !path.getFileName().toString().equals(INDEX_FILE))
+                    .filter(path -> !known.contains(path))
+                    .forEach(path -> deleteQuietly(List.of(path)));
+        } catch (IOException e) {
+            log.warn("캐시 디렉토리 정리 실패: {}", e.getMessage());
+        }
+        log.info("이미지 캐시 복원 - {}개, {} bytes", entries.size(), currentBytes);
+    }
+
+    /**
+     * LRU 순서대로 인덱스 기록 (오래된 것부터), 추가/삭제가 있었을 때만
+     * 임시 파일에 쓴 뒤 교체하므로 기록 중 종료되어도 이전 인덱스가 남음
+     */
+    @Scheduled(fixedDelayString = "${file.cache.index-save-interval:1m}")
+    public void saveIndex() {
+        List<String> lines;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            lines = new ArrayList<>(entries.size());
+            for (Map.Entry<String, CachedImage> entry : entries.entrySet()) {
+                CachedImage image = entry.getValue();
+                lines.add(String.join("\t",
+                        entry.getKey(),
+                        String.valueOf(image.size()),
+                        image.contentType(),
+                        image.eTag() != null ? image.eTag() : "",
+                        String.valueOf(image.lastModified() != null ? image.lastModified().toEpochMilli() : 0)));
+            }
+        }
+        Path index = cacheDir.resolve(INDEX_FILE);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(cacheDir, "index-", ".tmp");
+            Files.write(temp, lines);
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("캐시 인덱스 저장 실패: {}", e.getMessage());
+            synchronized (this) {
+                dirty = true; // 다음 주기에 다시 시도
+            }
+            if (temp != null) {
+                deleteQuietly(List.of(temp));
+            }
+        }
+    }
+
+    /**
+     * 종료 시 현재 LRU 순서로 인덱스 기록
+     */
+    @PreDestroy
+    public void close() {
+        synchronized (this) {
+            dirty = true; // 조회로 바뀐 LRU 순서도 반영
+        }
+        saveIndex();
+        log.info("이미지 캐시 - hit: {}, miss: {}, eviction: {}", hits.get(), misses.get(), evictions.get());
+    }
+}
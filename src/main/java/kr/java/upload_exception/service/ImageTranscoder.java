@@ -0,0 +1,287 @@
+package kr.java.upload_exception.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kr.java.upload_exception.exception.InvalidFileTypeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이미지 형식 협상 + 변환 (Accept: image/webp 등을 보내는 브라우저에 더 작은 형식으로 응답)
+ *
+ * - 대상: JPEG, PNG 원본과 축소본 (GIF는 애니메이션이 사라지므로, WebP 원본은 이미 작으므로 제외)
+ * - 변환본은 저장소에 파생 키(TranscodeFormat.keyFor)로 보관 → 재시작, 다른 서버에서도 재사용
+ *   원본을 지울 때 함께 삭제 (ImageVariant.derivedKeys)
+ * - 첫 요청은 원본으로 응답하고 변환을 예약 (imageTranscodeExecutor, 고정 크기 풀)
+ *   이후 요청부터 변환본으로 응답, 풀이 가득 차면 건너뛰고 다음 요청 때 다시 예약
+ * - 변환본이 원본보다 크면 저장하지 않고 원본 사용
+ * - 픽셀 수가 file.upload.max-pixels를 넘는 원본은 디코딩하지 않음 (ImageContentValidator.decode)
+ * - 형식별 인코더는 ImageIO 플러그인으로 찾음 (WebP: webp-imageio, 인코더가 없는 형식은 사용하지 않음)
+ *
+ * 응답하는 쪽(LocalImageHandler, S3FileController, S3AsyncImageServlet)은
+ * 대상 이미지면 Vary: Accept를 붙임 (같은 URL이 Accept에 따라 다른 내용)
+ * 변환 중이라 원본으로 응답하면 Cache-Control: PENDING_CACHE_CONTROL (Negotiation.pending)
+ */
+@Service
+@Slf4j
+public class ImageTranscoder {
+
+    /**
+     * 변환 중에 원본으로 응답할 때의 Cache-Control
+     * 원본에 1년 immutable을 붙이면 브라우저/CDN이 변환본이 생긴 뒤에도 원본을 계속 씀
+     * → 매번 재검증 (ETag는 응답한 파일 기준이므로 변환본이 준비되면 304 대신 변환본으로 응답)
+     */
+    public static final String PENDING_CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final FileStorageService fileStorageService;
+    private final ImageContentValidator imageContentValidator;
+    private final ThreadPoolTaskExecutor imageTranscodeExecutor;
+    private final List<TranscodeFormat> formats;
+    private final float quality;
+    private final long maxSourceBytes;
+
+    // 변환본 키 → 사용 가능 여부 (false: 변환할 수 없거나 원본보다 큼)
+    // 변환본이 지워진 경우를 위해 일정 시간 후 다시 확인
+    private final Cache<String, Boolean> available;
+    // 변환 중인 변환본 키 (같은 이미지를 동시에 두 번 변환하지 않음)
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageTranscoder(FileStorageService fileStorageService,
+                           ImageContentValidator imageContentValidator,
+                           @Qualifier("imageTranscodeExecutor") ThreadPoolTaskExecutor imageTranscodeExecutor,
+                           @Value("${file.transcode.enabled:true}") boolean enabled,
+                           @Value("${file.transcode.formats:avif,webp}") List<String> formats,
+                           @Value("${file.transcode.quality:0.8}") float quality,
+                           @Value("${file.transcode.max-source-size:10MB}") DataSize maxSourceSize,
+                           @Value("${file.transcode.state-cache-size:100000}") long stateCacheSize,
+                           @Value("${file.transcode.state-ttl:1h}") Duration stateTtl) {
+        this.fileStorageService = fileStorageService;
+        this.imageContentValidator = imageContentValidator;
+        this.imageTranscodeExecutor = imageTranscodeExecutor;
+        this.formats = enabled ? encodable(formats) : List.of();
+        this.quality = quality;
+        this.maxSourceBytes = maxSourceSize.toBytes();
+        this.available = Caffeine.newBuilder()
+                .maximumSize(stateCacheSize)
+                .expireAfterWrite(stateTtl)
+                .build();
+    }
+
+    /**
+     * 설정한 형식 중 ImageIO 인코더가 있는 것만 (우선순위 = TranscodeFormat 선언 순서)
+     */
+    private static List<TranscodeFormat> encodable(List<String> names) {
+        List<TranscodeFormat> result = new ArrayList<>();
+        for (TranscodeFormat format : TranscodeFormat.values()) {
+            if (!names.contains(format.getExtension())) {
+                continue;
+            }
+            if (ImageIO.getImageWritersByMIMEType(format.getContentType()).hasNext()) {
+                result.add(format);
+            } else {
+                log.info("이미지 형식 변환 - {} 인코더 없음 (ImageIO 플러그인 필요), 사용하지 않음", format);
+            }
+        }
+        log.info("이미지 형식 변환 대상 형식: {}", result);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Accept에 따라 응답이 달라지는 이미지인지 (응답에 Vary: Accept 필요)
+     */
+    public boolean isNegotiable(String key) {
+        if (formats.isEmpty() || key == null) {
+            return false;
+        }
+        String lower = key.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+    }
+
+    /**
+     * 협상 결과
+     * @param transcodedKey 응답할 변환본 키 (null이면 원본으로 응답)
+     * @param pending       더 우선하는 형식을 아직 변환 중 → 곧 같은 URL의 응답이 바뀌므로
+     *                      오래 캐시하지 않도록 PENDING_CACHE_CONTROL로 응답
+     */
+    public record Negotiation(String transcodedKey, boolean pending) {
+
+        static final Negotiation ORIGINAL = new Negotiation(null, false);
+
+        public Optional<String> transcoded() {
+            return Optional.ofNullable(transcodedKey);
+        }
+    }
+
+    /**
+     * Accept에 맞는 변환본 키 (없으면 원본으로 응답)
+     * 아직 확인하지 않은 변환본은 이 요청에서는 원본으로 응답하고 변환을 예약 (pending)
+     */
+    public Negotiation negotiate(String key, String accept) {
+        if (!isNegotiable(key) || accept == null) {
+            return Negotiation.ORIGINAL;
+        }
+        boolean pending = false;
+        for (TranscodeFormat format : acceptable(accept)) {
+            String transcodedKey = format.keyFor(key);
+            Boolean ready = available.getIfPresent(transcodedKey);
+            if (ready == null) {
+                schedule(key, format, transcodedKey);
+                pending = true;
+            } else if (ready) {
+                return new Negotiation(transcodedKey, pending);
+            }
+        }
+        return new Negotiation(null, pending);
+    }
+
+    /**
+     * 변환본을 찾을 수 없음 (원본과 함께 삭제됨) → 다음 요청에서 다시 확인
+     */
+    public void evict(String transcodedKey) {
+        available.invalidate(transcodedKey);
+    }
+
+    /**
+     * 브라우저가 명시한 형식만 (와일드카드는 해당 형식을 실제로 표시할 수 있다는 보장이 없으므로 제외)
+     */
+    private List<TranscodeFormat> acceptable(String accept) {
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return List.of();
+        }
+        List<TranscodeFormat> result = new ArrayList<>(formats.size());
+        for (TranscodeFormat format : formats) {
+            MediaType target = MediaType.parseMediaType(format.getContentType());
+            boolean accepted = mediaTypes.stream().anyMatch(mediaType -> !mediaType.isWildcardSubtype()
+                    && mediaType.getQualityValue() > 0
+                    && mediaType.getType().equals(target.getType())
+                    && mediaType.getSubtype().equals(target.getSubtype()));
+            if (accepted) {
+                result.add(format);
+            }
+        }
+        return result;
+    }
+
+    private void schedule(String key, TranscodeFormat format, String transcodedKey) {
+        if (!inFlight.add(transcodedKey)) {
+            return;
+        }
+        try {
+            imageTranscodeExecutor.execute(() -> {
+                try {
+                    available.put(transcodedKey, transcode(key, format, transcodedKey));
+                } catch (Exception e) {
+                    log.warn("이미지 형식 변환 실패 - key: {}, format: {}, {}", key, format, e.getMessage());
+                    available.put(transcodedKey, false);
+                } finally {
+                    inFlight.remove(transcodedKey);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // 변환 대기가 가득 참 → 이번에는 원본, 다음 요청 때 다시 예약
+            inFlight.remove(transcodedKey);
+        }
+    }
+
+    /**
+     * 원본 → 변환본 저장 (변환본을 쓸 수 있으면 true)
+     */
+    private boolean transcode(String key, TranscodeFormat format, String transcodedKey) throws IOException {
+        // 이전 실행이나 다른 서버가 이미 만들어 둔 변환본
+        if (fileStorageService.exists(transcodedKey)) {
+            return true;
+        }
+        byte[] original;
+        try (InputStream in = fileStorageService.load(key)) {
+            original = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxSourceBytes + 1));
+        }
+        if (original.length > maxSourceBytes) {
+            return false;
+        }
+        BufferedImage image;
+        try {
+            // 파일은 작아도 픽셀 수가 큰 이미지는 디코딩 전에 거부 (고정 크기 풀이라도 한 장이 힙을 다 씀)
+            image = imageContentValidator.decode(new ByteArrayInputStream(original));
+        } catch (InvalidFileTypeException e) {
+            log.debug("이미지 형식 변환 - 크기 초과로 건너뜀 - key: {}, {}", key, e.getMessage());
+            return false;
+        }
+        if (image == null) {
+            return false;
+        }
+        byte[] encoded = encode(image, format);
+        if (encoded.length >= original.length) {
+            log.debug("이미지 형식 변환 - 원본보다 커서 사용하지 않음 - key: {}, format: {}", key, format);
+            return false;
+        }
+        fileStorageService.storeAt(transcodedKey, new ByteArrayInputStream(encoded), encoded.length,
+                format.getContentType());
+        log.debug("이미지 형식 변환 - key: {}, format: {}, {} → {} bytes", key, format, original.length, encoded.length);
+        return true;
+    }
+
+    /**
+     * 손실 압축 + 화질(file.transcode.quality)로 인코딩
+     */
+    private byte[] encode(BufferedImage image, TranscodeFormat format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(format.getContentType());
+        if (!writers.hasNext()) {
+            throw new IOException(format + " 인코더 없음");
+        }
+        ImageWriter writer = writers.next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0) {
+                    // 플러그인마다 이름이 다름 (webp-imageio: "Lossy", "Lossless")
+                    param.setCompressionType(Arrays.stream(types)
+                            .filter(type -> type.toLowerCase(Locale.ROOT).contains("lossy"))
+                            .findFirst()
+                            .orElse(types[0]));
+                }
+                param.setCompressionQuality(quality);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(imageOut);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            return out.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+}
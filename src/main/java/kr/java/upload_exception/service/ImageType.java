@@ -0,0 +1,89 @@
+package kr.java.upload_exception.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 업로드를 허용하는 이미지 형식
+ *
+ * 형식마다 MIME 타입, 저장할 확장자, 파일 앞부분의 고유 바이트(매직 넘버)를 가짐
+ * 클라이언트가 보낸 Content-Type이 아니라 실제 내용으로 형식을 판별하는 데 사용
+ */
+public enum ImageType {
+
+    JPEG("image/jpeg", ".jpg"),   // FF D8 FF
+    PNG("image/png", ".png"),     // 89 'PNG' 0D 0A 1A 0A
+    GIF("image/gif", ".gif"),     // 'GIF87a' 또는 'GIF89a'
+    WEBP("image/webp", ".webp");  // 'RIFF' ???? 'WEBP'
+
+    // 화면에 보여줄 허용 형식 안내
+    public static final String ALLOWED_DESCRIPTION = "JPG, PNG, GIF, WebP";
+
+    private final String contentType;
+    private final String extension;
+
+    ImageType(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static Optional<ImageType> fromContentType(String contentType) {
+        return Arrays.stream(values())
+                .filter(type -> type.contentType.equalsIgnoreCase(contentType))
+                .findFirst();
+    }
+
+    /**
+     * 파일 이름의 확장자로 형식 추정 (일괄 가져오기의 zip 안 이미지 등, 실제 형식은 내용으로 다시 검증)
+     */
+    public static Optional<ImageType> fromFilename(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpeg")) {
+            return Optional.of(JPEG);
+        }
+        return Arrays.stream(values())
+                .filter(type -> lower.endsWith(type.extension))
+                .findFirst();
+    }
+
+    /**
+     * 파일 앞부분으로 형식 판별 (해당 없으면 empty)
+     */
+    public static Optional<ImageType> detect(byte[] head, int length) {
+        if (startsWith(head, length, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of(JPEG);
+        }
+        if (startsWith(head, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return Optional.of(PNG);
+        }
+        if (startsWith(head, length, 0, 'G', 'I', 'F', '8')
+                && (startsWith(head, length, 4, '7', 'a') || startsWith(head, length, 4, '9', 'a'))) {
+            return Optional.of(GIF);
+        }
+        if (startsWith(head, length, 0, 'R', 'I', 'F', 'F') && startsWith(head, length, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+
+    static boolean startsWith(byte[] data, int length, int offset, int... expected) {
+        if (length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package kr.java.upload_exception.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 원본 이미지로부터 만드는 축소본 종류
+ *
+ * 파생 파일의 키는 원본 키에서 계산한다. (DB에 키를 따로 저장하지 않아도 삭제 가능)
+ * 예: abc.jpg → abc_thumb.jpg, abc_display.jpg
+ */
+public enum ImageVariant {
+    THUMBNAIL(150, "thumb"),   // 목록 화면 (max 150px)
+    DISPLAY(600, "display");   // 상세 화면
+
+    private final int maxWidth;
+    private final String suffix;
+
+    ImageVariant(int maxWidth, String suffix) {
+        this.maxWidth = maxWidth;
+        this.suffix = suffix;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    /**
+     * 원본과 함께 지워야 하는 파생 파일 키 전부
+     * (축소본 + 원본/축소본 각각의 형식 변환본, 만들어지지 않은 키도 포함)
+     */
+    public static List<String> derivedKeys(String originalKey) {
+        List<String> sources = new ArrayList<>();
+        sources.add(originalKey);
+        for (ImageVariant variant : values()) {
+            sources.add(variant.keyFor(originalKey));
+        }
+        List<String> keys = new ArrayList<>(sources.subList(1, sources.size()));
+        for (String source : sources) {
+            for (TranscodeFormat format : TranscodeFormat.values()) {
+                keys.add(format.keyFor(source));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 원본 키 → 파생 파일 키
+     */
+    public String keyFor(String originalKey) {
+        int dot = originalKey.lastIndexOf('.');
+        int slash = originalKey.lastIndexOf('/');
+        if (dot <= slash) { // 확장자 없음
+            return originalKey + "_" + suffix;
+        }
+        return originalKey.substring(0, dot) + "_" + suffix + originalKey.substring(dot);
+    }
+}
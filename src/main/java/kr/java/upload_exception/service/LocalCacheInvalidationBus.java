@@ -0,0 +1,34 @@
+package kr.java.upload_exception.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 단일 서버용 캐시 무효화 전달 (테스트, 개발 환경)
+ * 구독자에게 바로(같은 스레드에서) 전달하므로 publish가 끝나면 캐시도 비워져 있음
+ */
+@Component
+@ConditionalOnProperty(
+        name = "review.cache.invalidation",
+        havingValue = "local",
+        matchIfMissing = true)
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<ReviewChangedEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ReviewChangedEvent event) {
+        for (Consumer<ReviewChangedEvent> listener : listeners) {
+            listener.accept(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ReviewChangedEvent> listener) {
+        listeners.add(listener);
+    }
+}
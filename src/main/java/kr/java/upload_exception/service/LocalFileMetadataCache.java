@@ -0,0 +1,88 @@
+package kr.java.upload_exception.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 로컬 이미지 파일 메타데이터(경로, 크기, 수정 시각, ETag) 메모리 캐시
+ *
+ * 키가 UUID/해시라 한 번 저장된 파일은 거의 바뀌지 않으므로 요청마다 stat 하지 않음
+ * - LocalFileStorageService가 파일을 쓰거나 지울 때 evict
+ * - 최대 개수를 넘으면 임의의 항목을 하나 제거 (조회 경로에 잠금이 없도록 LRU 대신 사용)
+ */
+@Component
+@ConditionalOnProperty(
+        name = "file.storage.type",
+        havingValue = "local",
+        matchIfMissing = true)
+public class LocalFileMetadataCache {
+
+    /**
+     * @param path         실제 파일 경로 (샤드/평면 배치 중 찾은 곳)
+     * @param length       파일 크기
+     * @param lastModified 수정 시각 (밀리초)
+     * @param eTag         수정 시각 + 크기로 만든 ETag (파일을 읽지 않고 계산)
+     * @param contentType  확장자로 판단한 Content-Type
+     */
+    public record FileMeta(Path path, long length, long lastModified, String eTag, String contentType) {
+    }
+
+    private final Map<String, FileMeta> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public LocalFileMetadataCache(@Value("${file.local.meta-cache-size:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 메타데이터 조회 (없으면 locator로 경로를 찾아 stat 해서 채움, 파일이 없으면 empty)
+     */
+    public Optional<FileMeta> get(String key, Function<String, Path> locator) throws IOException {
+        FileMeta meta = entries.get(key);
+        if (meta != null) {
+            return Optional.of(meta);
+        }
+        Path path = locator.apply(key);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        meta = new FileMeta(path, attributes.size(), lastModified,
+                "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(attributes.size()) + "\"",
+                MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        if (entries.size() >= maxEntries) {
+            Iterator<String> it = entries.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(key, meta);
+        return Optional.of(meta);
+    }
+
+    public void evict(String key) {
+        entries.remove(key);
+    }
+}
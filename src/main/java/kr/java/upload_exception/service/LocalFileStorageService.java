@@ -1,20 +1,37 @@
 package kr.java.upload_exception.service;
 
 import kr.java.upload_exception.exception.FileStorageException;
-import kr.java.upload_exception.exception.InvalidFileTypeException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
 /**
  * 로컬 디스크 저장 구현체
@@ -34,18 +51,36 @@ public class LocalFileStorageService implements FileStorageService {
     // import java.nio.file.Path;
     private final Path uploadPath;
 
-    // 허용할 이미지 MIME 타입 목록
-    // MIME 타입: 파일의 종류를 나타내는 표준 형식 (예: image/jpeg = JPEG 이미지)
-    private static final List<String> ALLOWED_TYPES = List.of(
-            "image/jpeg",   // JPG, JPEG 이미지
-            "image/png",    // PNG 이미지
-            "image/gif",    // GIF 이미지
-            "image/webp"    // WebP 이미지
-    );
+    // 16진수 4글자로 시작하는 키 (샤드 디렉토리 이름으로 그대로 사용)
+    private static final Pattern HEX_PREFIX = Pattern.compile("[0-9a-f]{4}");
+
+    // 이미지 형식 검증 (허용 형식은 ImageType 참고)
+    private final ImageContentValidator imageContentValidator;
+
+    // 이미지 응답용 메타데이터 캐시 (파일을 쓰거나 지우면 무효화)
+    private final LocalFileMetadataCache metadataCache;
+
+    // 업로드 파일 확정 대기 기록 (파일을 쓰기 전에)
+    private final StorageOutboxService storageOutboxService;
+
+    // 여러 파일 삭제용 전용 풀 (AsyncConfig 참고)
+    private final ThreadPoolTaskExecutor deleteExecutor;
+
+    // 내용 기반 저장 모드 (ContentAddress 참고)
+    @Value("${file.storage.content-addressed:false}")
+    private boolean contentAddressed;
 
     // 생성자: application.yaml의 file.upload-dir 값을 주입받음
     // import org.springframework.beans.factory.annotation.Value;
-    public LocalFileStorageService(@Value("${file.upload-dir}") String uploadDir) {
+    public LocalFileStorageService(@Value("${file.upload-dir}") String uploadDir,
+                                   ImageContentValidator imageContentValidator,
+                                   LocalFileMetadataCache metadataCache,
+                                   StorageOutboxService storageOutboxService,
+                                   @Qualifier("localFileDeleteExecutor") ThreadPoolTaskExecutor deleteExecutor) {
+        this.imageContentValidator = imageContentValidator;
+        this.metadataCache = metadataCache;
+        this.storageOutboxService = storageOutboxService;
+        this.deleteExecutor = deleteExecutor;
         // 문자열 경로를 Path 객체로 변환
         this.uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
 
@@ -62,7 +97,7 @@ public class LocalFileStorageService implements FileStorageService {
      * MultipartFile -> 저장된 파일명
      *
      * @param file 업로드된 파일 (MultipartFile: Spring이 업로드 파일을 다루는 인터페이스)
-     * @return 저장된 파일명 (UUID + 원본 확장자)
+     * @return 저장된 파일명 (UUID + 실제 형식의 확장자)
      */
     public String store(MultipartFile file) {
         // 빈 파일 체크
@@ -70,20 +105,20 @@ public class LocalFileStorageService implements FileStorageService {
             throw new FileStorageException("빈 파일은 업로드할 수 없습니다.");
         }
 
-        // 파일 타입 검증
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_TYPES.contains(contentType)) {
-            throw new InvalidFileTypeException(
-                    "허용되지 않는 파일 형식입니다. (허용: JPG, PNG, GIF, WebP)"
-            );
+        // 내용 기반 저장 모드: 파일 내용의 해시를 키로 사용 (같은 파일은 한 번만 저장)
+        if (contentAddressed) {
+            return storeContentAddressed(file);
         }
 
-        // 원본 파일명에서 확장자 추출
-        String originalFilename = file.getOriginalFilename();
-//        String extension = originalFilename.substring(originalFilename.lastIndexOf('.'));
-        // substring으로 확장자 추출을하게 되면, 나중에 문제가 생길 수 있음으로, 아래처럼 따로 메서드화 시킨다.
-        String extension = extractExtension(originalFilename);
-        // image.jpg -> image[.jpg] -> .jpg
+        // 파일 타입 검증: 선언된 Content-Type + 실제 내용(앞부분 매직 넘버)
+        // transferTo는 임시 파일 이동이라 본문을 복사하지 않으므로 앞부분만 읽어서 확인
+        // 확장자도 원본 파일명(사용자 입력)이 아니라 실제 형식에서 결정
+        String extension;
+        try (InputStream in = file.getInputStream()) {
+            extension = imageContentValidator.validate(in, file.getContentType()).type().getExtension();
+        } catch (IOException e) {
+            throw new FileStorageException("파일을 읽을 수 없습니다: " + e.getMessage());
+        }
 
         // 새로운 파일명 생성: UUID를 사용해 중복 방지
         // UUID: 전 세계에서 고유한 식별자를 생성하는 표준 방식
@@ -96,8 +131,11 @@ public class LocalFileStorageService implements FileStorageService {
         }
 
         try {
-            // 최종 저장 경로 생성
-            Path targetPath = this.uploadPath.resolve(storedFilename);
+            // 쓰기 전에 확정 대기 기록 (리뷰 저장까지 이어지지 않으면 기한 뒤 정리)
+            storageOutboxService.recordPendingPromotion(storedFilename, Duration.ZERO);
+
+            // 최종 저장 경로 생성 (ab/cd/키)
+            Path targetPath = prepareWrite(storedFilename);
 
             // 파일 저장 (transferTo: 업로드된 파일을 지정 경로로 이동)
             file.transferTo(targetPath);
@@ -109,14 +147,202 @@ public class LocalFileStorageService implements FileStorageService {
     }
 
     /**
-     * 파일명에서 확장자 추출
-     * 예: "photo.jpg" → ".jpg"
+     * 스트림 저장 (StreamingReviewController: 요청 본문에서 바로 저장 위치로 한 번만 씀)
      */
-    private String extractExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "";
+    @Override
+    public String store(InputStream content, String contentType) {
+        Path target = null;
+        try {
+            ImageContentValidator.Validated validated = imageContentValidator.validate(content, contentType);
+            if (contentAddressed) {
+                return storeContentAddressed(validated);
+            }
+            String storedFilename = UUID.randomUUID() + validated.type().getExtension();
+            storageOutboxService.recordPendingPromotion(storedFilename, Duration.ZERO);
+            target = prepareWrite(storedFilename);
+            Files.copy(validated.stream(), target);
+            return storedFilename;
+        } catch (IOException e) {
+            // 받다가 끊긴 경우 등 → 쓰다 만 파일 정리
+            deleteQuietly(target);
+            throw new FileStorageException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        } catch (RuntimeException e) {
+            deleteQuietly(target);
+            throw e;
         }
-        return filename.substring(filename.lastIndexOf("."));
+    }
+
+    /**
+     * 내용 기반 저장
+     * 임시 파일로 받으면서 해시 계산 → 같은 파일이 이미 있으면 임시 파일만 버림
+     */
+    private String storeContentAddressed(MultipartFile file) {
+        try (InputStream raw = file.getInputStream()) {
+            // 앞부분 검증을 통과해야 임시 파일을 만듦
+            return storeContentAddressed(imageContentValidator.validate(raw, file.getContentType()));
+        } catch (IOException e) {
+            throw new FileStorageException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    private String storeContentAddressed(ImageContentValidator.Validated validated) throws IOException {
+        Path temp = Files.createTempFile(this.uploadPath, "upload-", ".tmp");
+        try {
+            MessageDigest digest = ContentAddress.newDigest();
+            Files.copy(new DigestInputStream(validated.stream(), digest), temp, StandardCopyOption.REPLACE_EXISTING);
+            String key = ContentAddress.key(digest, validated.type().getExtension());
+            // 있는지 확인하기 전에 예약 → 지우는 중이던 파일이면 삭제가 끝난 뒤에 확인하므로 다시 씀
+            storageOutboxService.recordPendingPromotion(key, Duration.ZERO);
+            if (Files.exists(resolve(key))) {
+                Files.delete(temp); // 이미 있는 파일 → 쓰기 생략
+            } else {
+                // 같은 파일이 동시에 올라와도 내용이 같으므로 덮어써도 무해
+                Files.move(temp, prepareWrite(key), StandardCopyOption.ATOMIC_MOVE);
+            }
+            return key;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    // 임시/쓰다 만 파일 정리 (실패는 무시)
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 임시 파일 정리 실패는 무시
+        }
+    }
+
+    /**
+     * 키 → 실제 파일 경로 (업로드 디렉토리 밖을 가리키면 예외)
+     *
+     * 파일은 키 앞부분으로 나눈 하위 디렉토리에 저장 (uploads/ab/cd/abcd1234-....jpg)
+     * → 한 디렉토리에 수백만 개가 쌓이지 않음. 키와 URL(/images/키)은 그대로
+     * 예전 평면 배치(uploads/키)에만 있는 파일은 그 경로를 반환 (LocalShardMigrator가 옮기는 동안 둘 다 지원)
+     * 어디에도 없으면 새 배치 경로
+     */
+    public Path resolve(String key) {
+        Path sharded = shardedPath(key);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path flat = flatPath(key);
+        return Files.exists(flat) ? flat : sharded;
+    }
+
+    /**
+     * 새 배치 경로: uploads/{키 앞 2글자}/{다음 2글자}/키
+     * UUID, SHA-256 키는 앞부분이 고르게 분포 (최대 65536개 디렉토리)
+     * 16진수로 시작하지 않는 키는 키의 MD5 앞부분 사용
+     * 축소본 키(원본키_thumb.jpg)는 원본과 같은 디렉토리에 들어감
+     */
+    public Path shardedPath(String key) {
+        String prefix = HEX_PREFIX.matcher(key).lookingAt()
+                ? key
+                : DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+        return checked(this.uploadPath
+                .resolve(prefix.substring(0, 2))
+                .resolve(prefix.substring(2, 4))
+                .resolve(key));
+    }
+
+    /**
+     * 예전 평면 배치 경로: uploads/키
+     */
+    public Path flatPath(String key) {
+        return checked(this.uploadPath.resolve(key));
+    }
+
+    public Path getUploadPath() {
+        return uploadPath;
+    }
+
+    private Path checked(Path path) {
+        Path normalized = path.normalize();
+        if (!normalized.startsWith(this.uploadPath)) {
+            throw new FileStorageException("파일명에 허용되지 않는 문자가 포함되어 있습니다.");
+        }
+        return normalized;
+    }
+
+    // 쓰기용 경로 (새 배치, 디렉토리가 없으면 생성)
+    private Path prepareWrite(String key) throws IOException {
+        Path path = shardedPath(key);
+        Files.createDirectories(path.getParent());
+        return path;
+    }
+
+    // 두 배치 모두에서 삭제 (이전 중에는 어느 쪽에 있을지 모름)
+    private void deleteEverywhere(String key) throws IOException {
+        Files.deleteIfExists(shardedPath(key));
+        Files.deleteIfExists(flatPath(key));
+        // 삭제 후에 비움 (먼저 비우면 삭제 전에 들어온 요청이 다시 채울 수 있음)
+        metadataCache.evict(key);
+    }
+
+    @Override
+    public void storeAt(String key, InputStream content, long size, String contentType) {
+        try {
+            Files.copy(content, prepareWrite(key), StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(flatPath(key)); // 예전 배치에 남은 이전 내용 정리
+            metadataCache.evict(key);
+        } catch (IOException e) {
+            throw new FileStorageException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 서명 업로드 저장 (한 번만 쓸 수 있음)
+     * 임시 파일로 다 받은 뒤 하드 링크로 공개 → 같은 키가 이미 있으면 실패 (확인과 생성이 원자적)
+     * 다 받기 전에는 키로 보이지 않으므로 완료 요청이 쓰다 만 파일을 검증하지 않음
+     *
+     * @return 저장했으면 true, 이미 있는 키면 false (기존 파일은 그대로)
+     */
+    public boolean storeNew(String key, InputStream content) {
+        Path temp = null;
+        try {
+            if (Files.exists(flatPath(key))) {
+                return false;
+            }
+            Path target = prepareWrite(key);
+            temp = Files.createTempFile(this.uploadPath, "upload-", ".tmp");
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.createLink(target, temp);
+            metadataCache.evict(key);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (IOException e) {
+            throw new FileStorageException("파일 저장 중 오류가 발생했습니다: " + e.getMessage());
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public InputStream load(String key) {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (NoSuchFileException e) {
+            // 확인한 직후 이전 작업이 새 배치로 옮긴 경우 한 번 더 시도
+            try {
+                return Files.newInputStream(resolve(key));
+            } catch (IOException retry) {
+                throw new FileStorageException("파일을 읽을 수 없습니다: " + key);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("파일을 읽을 수 없습니다: " + key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return StringUtils.hasText(key) && Files.exists(resolve(key));
     }
 
     /**
@@ -129,8 +355,7 @@ public class LocalFileStorageService implements FileStorageService {
         }
 
         try {
-            Path filePath = this.uploadPath.resolve(filename);
-            Files.deleteIfExists(filePath); // 만약있으면 삭제
+            deleteEverywhere(filename); // 만약있으면 삭제
 
         } catch (IOException e) {
             // 삭제 실패는 로그만 남기고 진행 (파일이 이미 없을 수도 있음)
@@ -140,6 +365,46 @@ public class LocalFileStorageService implements FileStorageService {
         }
     }
 
+    /**
+     * 여러 파일 병렬 삭제 (파일마다 디스크 I/O 대기가 있으므로 동시에 진행)
+     * 전용 풀(localFileDeleteExecutor)에서 실행하고 묶음 전체가 끝날 때까지 기다림
+     * 실패한 키는 모아서 반환 → 정리 대기열이 다시 시도
+     */
+    @Override
+    public Set<String> deleteAll(Collection<String> keys) {
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        Map<String, Future<?>> deletes = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (!StringUtils.hasText(key) || deletes.containsKey(key)) {
+                continue;
+            }
+            deletes.put(key, deleteExecutor.submit(() -> {
+                try {
+                    deleteEverywhere(key);
+                } catch (IOException e) {
+                    log.error("파일 삭제 실패: {}", key);
+                    failed.add(key);
+                } catch (FileStorageException e) {
+                    // 잘못된 키는 재시도해도 같으므로 건너뜀
+                    log.warn("잘못된 키 삭제 건너뜀: {}", key);
+                }
+            }));
+        }
+        for (Map.Entry<String, Future<?>> delete : deletes.entrySet()) {
+            try {
+                delete.getValue().get();
+            } catch (ExecutionException e) {
+                log.error("파일 삭제 실패: {}", delete.getKey(), e.getCause());
+                failed.add(delete.getKey());
+            } catch (InterruptedException e) {
+                // 끝났는지 알 수 없으므로 실패로 보고 다음 실행에서 다시 시도
+                Thread.currentThread().interrupt();
+                failed.add(delete.getKey());
+            }
+        }
+        return failed;
+    }
+
     @Override
     public String getUrl(String key) {
         // 로컬 저장소의 경우 /images/ 경로로 접근
@@ -0,0 +1,118 @@
+package kr.java.upload_exception.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 평면 배치(uploads/키) → 샤드 배치(uploads/ab/cd/키) 온라인 이전
+ *
+ * file.local.migrate-flat-files=true 로 켜면 서버 시작 후 백그라운드에서 실행
+ * - 서비스는 계속 동작 (LocalFileStorageService.resolve가 두 배치를 모두 찾음)
+ * - 같은 파일시스템 안의 rename이라 파일 내용은 복사하지 않음
+ * - 디렉토리를 한 번 훑으며 파일마다 이동 작업을 풀에 넘김 (대기 작업 수는 제한)
+ * - 중간에 서버가 내려가도 다음 시작 시 남은 파일부터 이어서 진행
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${file.storage.type:local}' == 'local' and ${file.local.migrate-flat-files:false}")
+public class LocalShardMigrator {
+
+    private final LocalFileStorageService localFileStorageService;
+    private final LocalFileMetadataCache metadataCache;
+
+    @Value("${file.local.migration-threads:4}")
+    private int threads;
+
+    private final AtomicLong moved = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread runner = new Thread(this::migrate, "shard-migration");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    void migrate() {
+        Path root = localFileStorageService.getUploadPath();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // 디렉토리 목록을 읽는 속도가 이동보다 빠르므로 대기 작업 수 제한 (메모리 보호)
+        Semaphore inFlight = new Semaphore(threads * 100);
+        long startedAt = System.nanoTime();
+        log.info("업로드 파일 샤드 배치 이전 시작: {}", root);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : files) {
+                String key = file.getFileName().toString();
+                if (key.endsWith(".tmp")) {
+                    continue; // 저장 중인 임시 파일
+                }
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        move(key);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } catch (IOException e) {
+            log.error("업로드 디렉토리를 읽을 수 없습니다: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(1, TimeUnit.HOURS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("업로드 파일 샤드 배치 이전 완료 - 이동: {}, 실패: {}, {}초", moved.get(), failed.get(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt));
+    }
+
+    private void move(String key) {
+        try {
+            Path flat = localFileStorageService.flatPath(key);
+            Path sharded = localFileStorageService.shardedPath(key);
+            if (Files.exists(sharded)) {
+                // 새 배치에 이미 더 최근 내용이 있음 (이전 중 다시 저장된 경우) → 예전 파일만 정리
+                Files.deleteIfExists(flat);
+                metadataCache.evict(key);
+                return;
+            }
+            Files.createDirectories(sharded.getParent());
+            Files.move(flat, sharded, StandardCopyOption.ATOMIC_MOVE);
+            // 캐시된 메타데이터의 경로가 예전 위치 → 다음 요청에서 새 위치로 다시 찾음
+            metadataCache.evict(key);
+            long count = moved.incrementAndGet();
+            if (count % 10000 == 0) {
+                log.info("샤드 배치 이전 중 - {}개 이동", count);
+            }
+        } catch (NoSuchFileException e) {
+            // 그 사이 삭제된 파일
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("샤드 배치 이전 실패 - key: {}, {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.dto.PresignedUpload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 로컬 저장소용 서명 업로드 주소 발급
+ *
+ * S3 presigned URL과 같은 방식으로 동작하도록
+ * 키/Content-Type/크기/만료 시각을 HMAC으로 서명한 주소(/uploads/signed/{key})를 발급하고
+ * SignedUploadController가 서명을 검증한 뒤 저장한다.
+ * 서명 키를 설정하지 않으면 실행할 때마다 새로 만듦 (여러 서버라면 같은 값으로 설정)
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+        name = "file.storage.type",
+        havingValue = "local",
+        matchIfMissing = true)
+public class LocalUploadPresigner implements UploadPresigner {
+
+    private final LocalFileStorageService localFileStorageService;
+    private final byte[] secret;
+
+    public LocalUploadPresigner(LocalFileStorageService localFileStorageService,
+                                @Value("${file.presign.secret:}") String secret) {
+        this.localFileStorageService = localFileStorageService;
+        if (StringUtils.hasText(secret)) {
+            this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            this.secret = new byte[32];
+            new SecureRandom().nextBytes(this.secret);
+        }
+    }
+
+    @Override
+    public PresignedUpload presign(String key, String contentType, long contentLength, Duration ttl) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        long expires = expiresAt.getEpochSecond();
+        String url = UriComponentsBuilder.fromPath("/uploads/signed/{key}")
+                .queryParam("size", contentLength)
+                .queryParam("expires", expires)
+                .queryParam("signature", sign(key, contentType, contentLength, expires))
+                .buildAndExpand(key)
+                .encode()
+                .toUriString();
+        return new PresignedUpload(key, url, "PUT", Map.of("Content-Type", contentType), expiresAt);
+    }
+
+    /**
+     * 업로드 요청의 서명 검증 (만료 포함)
+     */
+    public boolean verify(String key, String contentType, long contentLength, long expires, String signature) {
+        if (Instant.now().getEpochSecond() > expires || signature == null) {
+            return false;
+        }
+        byte[] expected = sign(key, contentType, contentLength, expires).getBytes(StandardCharsets.US_ASCII);
+        // 시간 차 공격 방지를 위해 고정 시간 비교
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public Optional<UploadedObject> findUploaded(String key) {
+        Path path = localFileStorageService.resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        // S3와 달리 요청의 Content-Type을 따로 보관하지 않으므로 (확장자는 발급할 때 정한 값)
+        // 저장된 내용 앞부분으로 판별, 이미지가 아니면 octet-stream → 완료 요청에서 거부
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(ImageContentValidator.HEADER_SIZE);
+            String contentType = ImageType.detect(head, head.length)
+                    .map(ImageType::getContentType)
+                    .orElse("application/octet-stream");
+            return Optional.of(new UploadedObject(Files.size(path), contentType));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String sign(String key, String contentType, long contentLength, long expires) {
+        String payload = key + "\n" + contentType + "\n" + contentLength + "\n" + expires;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.dto.RatingStats;
+import kr.java.upload_exception.model.entity.RatingStat;
+import kr.java.upload_exception.model.repository.RatingStatRepository;
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 평점 통계 (rating_stats 집계 테이블)
+ *
+ * - 리뷰 등록/수정/삭제 트랜잭션 안에서 평점별 리뷰 수를 증감 → 리뷰와 통계가 함께 커밋/롤백
+ * - 조회는 5행만 읽어서 계산 (리뷰 수와 관계없이 일정)
+ * - 정기적으로(그리고 서버 시작 시) 리뷰 테이블에서 다시 세어 어긋난 값을 바로잡음
+ *   (테이블을 처음 만든 직후, 직접 SQL로 리뷰를 고친 경우 등)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RatingStatsService {
+
+    private final RatingStatRepository ratingStatRepository;
+    private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 리뷰 등록 (리뷰 저장 트랜잭션 안에서 호출)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewAdded(int rating) {
+        ratingStatRepository.add(rating, 1);
+    }
+
+    /**
+     * 리뷰 여러 건 등록 (일괄 가져오기 트랜잭션 안에서 호출)
+     * @param countsByRating 인덱스 = 평점 (1~5)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewsAdded(long[] countsByRating) {
+        for (int rating = 1; rating <= 5; rating++) { // 평점 오름차순으로 잠금
+            if (countsByRating[rating] > 0) {
+                ratingStatRepository.add(rating, countsByRating[rating]);
+            }
+        }
+    }
+
+    /**
+     * 리뷰 삭제 (리뷰 삭제 트랜잭션 안에서 호출)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewRemoved(int rating) {
+        ratingStatRepository.add(rating, -1);
+    }
+
+    /**
+     * 리뷰 평점 변경 (리뷰 수정 트랜잭션 안에서 호출)
+     * 두 행을 항상 평점 오름차순으로 잠금 → 반대 방향 수정(1→2, 2→1)끼리 교착 상태가 생기지 않음
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ratingChanged(int oldRating, int newRating) {
+        if (oldRating == newRating) {
+            return;
+        }
+        if (oldRating < newRating) {
+            ratingStatRepository.add(oldRating, -1);
+            ratingStatRepository.add(newRating, 1);
+        } else {
+            ratingStatRepository.add(newRating, 1);
+            ratingStatRepository.add(oldRating, -1);
+        }
+    }
+
+    /**
+     * 통계 조회 (평균, 평점별 분포)
+     */
+    @Transactional(readOnly = true)
+    public RatingStats getStats() {
+        long[] counts = new long[6]; // 인덱스 = 평점
+        for (RatingStat stat : ratingStatRepository.findAll()) {
+            if (stat.getRating() >= 1 && stat.getRating() <= 5) {
+                counts[stat.getRating()] = Math.max(stat.getReviewCount(), 0);
+            }
+        }
+
+        long total = 0;
+        long sum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            total += counts[rating];
+            sum += counts[rating] * rating;
+        }
+        List<RatingStats.Bucket> histogram = new ArrayList<>(5);
+        for (int rating = 5; rating >= 1; rating--) {
+            int percent = total > 0 ? (int) Math.round(counts[rating] * 100.0 / total) : 0;
+            histogram.add(new RatingStats.Bucket(rating, counts[rating], percent));
+        }
+        double average = total > 0 ? Math.round(sum * 100.0 / total) / 100.0 : 0; // 소수점 둘째 자리
+        return new RatingStats(total, average, histogram);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * 리뷰 테이블에서 평점별 수를 다시 세어 덮어씀
+     *
+     * 집계 행을 먼저 잠가서 그동안의 증감은 재계산이 끝난 뒤에 반영되게 함
+     * (잠금 뒤에 세므로, 잠금 전에 커밋된 리뷰는 세는 값에 포함되고 이후 리뷰는 증감으로 반영)
+     */
+    @Scheduled(cron = "${review.stats.reconcile-cron:0 30 4 * * *}")
+    public void reconcile() {
+        Boolean changed = transactionTemplate.execute(status -> {
+            Map<Integer, Long> stored = new HashMap<>();
+            for (RatingStat stat : ratingStatRepository.findAllForUpdate()) {
+                stored.put(stat.getRating(), stat.getReviewCount());
+            }
+            Map<Integer, Long> actual = new HashMap<>();
+            for (Object[] row : reviewRepository.countByRating()) {
+                actual.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+            }
+
+            boolean updated = false;
+            for (int rating = 1; rating <= 5; rating++) {
+                long count = actual.getOrDefault(rating, 0L);
+                Long current = stored.get(rating);
+                if (current == null || current != count) {
+                    ratingStatRepository.overwrite(rating, count);
+                    log.warn("평점 통계 보정 - {}점: {} → {}", rating, current, count);
+                    updated = true;
+                }
+            }
+            return updated;
+        });
+        if (Boolean.TRUE.equals(changed)) {
+            // 통계를 보여주는 목록 화면의 캐시/ETag 갱신
+            eventPublisher.publishEvent(new ReviewChangedEvent(null));
+        }
+    }
+}
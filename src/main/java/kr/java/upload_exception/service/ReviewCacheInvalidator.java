@@ -0,0 +1,54 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 리뷰 조회 캐시 무효화
+ *
+ * - 커밋 후에만 비움 (롤백되면 캐시도 그대로, 커밋 전에 비우면 다른 요청이 이전 값을 다시 채울 수 있음)
+ * - CacheInvalidationBus로 모든 서버에 알리고, 알림을 받은 서버가 각자 자기 캐시를 비움
+ * - 리뷰 상세는 해당 ID만, 목록은 어느 페이지에 걸쳐 있는지 알 수 없으므로 전부 비움
+ * - 비운 뒤 데이터 버전 증가 (ETag, 목록/조각 캐시 키가 바뀜)
+ *
+ * 비우는 중에 진행 중인 조회(@Cacheable(sync = true))
+ * - 상세: 키 하나를 지우면 Caffeine이 같은 키의 조회가 끝날 때까지 기다렸다가 지움 → 이전 값이 남지 않음
+ * - 목록: 전체 비우기는 진행 중인 조회를 기다리지 않아 커밋 전 결과가 다시 들어갈 수 있음
+ *   → 목록 키에 데이터 버전을 넣어, 버전이 올라간 뒤에는 그 결과를 읽지 않게 함 (ReviewService.findPage)
+ */
+@Component
+public class ReviewCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final ReviewVersion reviewVersion;
+
+    public ReviewCacheInvalidator(CacheManager cacheManager, CacheInvalidationBus invalidationBus,
+                                  ReviewVersion reviewVersion) {
+        this.cacheManager = cacheManager;
+        this.invalidationBus = invalidationBus;
+        this.reviewVersion = reviewVersion;
+        invalidationBus.subscribe(this::evict);
+    }
+
+    // 트랜잭션 밖에서 발행된 경우(축소본 URL 기록 등)는 바로 처리
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        invalidationBus.publish(event);
+    }
+
+    private void evict(ReviewChangedEvent event) {
+        Cache reviews = cacheManager.getCache(CacheConfig.REVIEW);
+        if (reviews != null && event.reviewId() != null) {
+            reviews.evictIfPresent(event.reviewId()); // evict와 달리 바로 반영됨을 보장
+        }
+        Cache pages = cacheManager.getCache(CacheConfig.REVIEW_PAGES);
+        if (pages != null) {
+            pages.invalidate(); // 이전 버전 키 정리 (메모리 확보)
+        }
+        reviewVersion.increment(); // 반드시 캐시를 비운 뒤 (ReviewVersion 참고)
+    }
+}
@@ -0,0 +1,28 @@
+package kr.java.upload_exception.service;
+
+import java.util.List;
+
+/**
+ * 리뷰가 등록/수정/삭제되었을 때 발행하는 이벤트
+ * 트랜잭션 커밋 후 ReviewCacheInvalidator가 받아서 조회 캐시를 비운다. (다른 서버에도 전달)
+ *
+ * @param reviewId  바뀐 리뷰 ID (null이면 특정 리뷰가 아닌 목록 전체 - 평점 통계 보정 등)
+ * @param reviewIds 한꺼번에 추가된 리뷰 ID (일괄 가져오기, 각 서버의 검색 색인에 반영)
+ */
+public record ReviewChangedEvent(Long reviewId, List<Long> reviewIds) {
+
+    public ReviewChangedEvent {
+        reviewIds = reviewIds == null ? List.of() : reviewIds; // 필드가 없는 메시지 (다른 서버의 이전 버전)
+    }
+
+    public ReviewChangedEvent(Long reviewId) {
+        this(reviewId, List.of());
+    }
+
+    /**
+     * 여러 리뷰 추가 (목록 전체 무효화 + 추가된 리뷰 색인)
+     */
+    public static ReviewChangedEvent added(List<Long> reviewIds) {
+        return new ReviewChangedEvent(null, List.copyOf(reviewIds));
+    }
+}
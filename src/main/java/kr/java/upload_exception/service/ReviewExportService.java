@@ -0,0 +1,126 @@
+package kr.java.upload_exception.service;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import jakarta.persistence.EntityManager;
+import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * 리뷰 전체 내보내기 (분석용 덤프, GET /api/reviews/export)
+ *
+ * 리뷰 수와 관계없이 메모리 사용량이 일정하도록
+ * - DB 커서로 조금씩 읽고 (ReviewRepository.streamAll, fetch size 1000)
+ * - 읽은 행은 바로 응답에 쓰고, 영속성 컨텍스트를 주기적으로 비움
+ * 형식: NDJSON(한 줄에 리뷰 하나) 또는 CSV(헤더 포함), 컬럼은 ExportRow
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewExportService {
+
+    // 이 수만큼 쓸 때마다 영속성 컨텍스트를 비우고 응답을 내보냄
+    private static final int CLEAR_INTERVAL = 1000;
+
+    private final ReviewRepository reviewRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    public enum Format {
+        NDJSON("ndjson", "application/x-ndjson"),
+        CSV("csv", "text/csv");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format from(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("지원하지 않는 형식입니다: " + name + " (ndjson, csv)");
+            }
+        }
+    }
+
+    /**
+     * 내보내는 한 행 (createdAt은 ISO-8601, 일괄 가져오기 형식과 같음)
+     */
+    @JsonPropertyOrder({"id", "title", "content", "rating", "imageUrl", "thumbnailUrl", "displayUrl", "createdAt"})
+    public record ExportRow(Long id, String title, String content, Integer rating,
+                            String imageUrl, String thumbnailUrl, String displayUrl, String createdAt) {
+
+        static ExportRow from(Review review) {
+            return new ExportRow(review.getId(), review.getTitle(), review.getContent(), review.getRating(),
+                    review.getImageUrl(), review.getThumbnailUrl(), review.getDisplayUrl(),
+                    review.getCreatedAt() != null ? review.getCreatedAt().toString() : null);
+        }
+    }
+
+    /**
+     * 전체 리뷰를 out에 씀 (ID 순서, out은 닫지 않음)
+     * 커서가 열려 있는 동안 트랜잭션(DB 연결)을 잡고 있음
+     *
+     * @return 내보낸 리뷰 수
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream out) throws IOException {
+        long count = 0;
+        long startedAt = System.nanoTime();
+        try (Stream<Review> reviews = reviewRepository.streamAll();
+             SequenceWriter writer = writerFor(format).writeValues(out)) {
+            Iterator<Review> iterator = reviews.iterator();
+            while (iterator.hasNext()) {
+                writer.write(ExportRow.from(iterator.next()));
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear(); // 이미 쓴 리뷰는 더 이상 필요 없음
+                    writer.flush();
+                }
+            }
+        }
+        if (format == Format.NDJSON && count > 0) {
+            out.write('\n'); // 마지막 줄도 줄바꿈으로 끝냄
+        }
+        out.flush();
+        log.info("리뷰 내보내기 완료 - 형식: {}, {}건, {}ms",
+                format, count, (System.nanoTime() - startedAt) / 1_000_000);
+        return count;
+    }
+
+    private ObjectWriter writerFor(Format format) {
+        ObjectWriter writer = switch (format) {
+            case NDJSON -> objectMapper.writerFor(ExportRow.class).withRootValueSeparator("\n");
+            case CSV -> csvMapper.writerFor(ExportRow.class)
+                    .with(csvMapper.schemaFor(ExportRow.class).withHeader());
+        };
+        // 응답 스트림은 호출한 쪽에서 닫음 (gzip 마무리 등)
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -0,0 +1,12 @@
+package kr.java.upload_exception.service;
+
+/**
+ * 리뷰에 새 이미지가 저장되었을 때 발행하는 이벤트
+ * 트랜잭션 커밋 후 ThumbnailService가 받아서 축소본을 만든다.
+ *
+ * @param reviewId 리뷰 ID
+ * @param key      저장소 키 (원본)
+ * @param imageUrl 리뷰에 기록된 원본 URL (그 사이 이미지가 바뀌었는지 확인용)
+ */
+public record ReviewImageStoredEvent(Long reviewId, String key, String imageUrl) {
+}
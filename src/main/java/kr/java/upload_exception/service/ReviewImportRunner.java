@@ -0,0 +1,52 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.dto.ReviewImportJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+
+/**
+ * 리뷰 일괄 가져오기 - 명령줄 실행 (큰 파일, 업로드 크기 제한 없이)
+ *
+ * java -jar app.war --spring.main.web-application-type=none \
+ *     --review.import.reviews=reviews.ndjson --review.import.images=images.zip
+ *
+ * 가져오기가 끝나면 종료 (실패 행은 로그로, 작업 전체가 실패하면 종료 코드 1)
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "review.import.reviews")
+public class ReviewImportRunner implements ApplicationRunner {
+
+    private final ReviewImportService reviewImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${review.import.reviews}")
+    private String reviews;
+
+    @Value("${review.import.images:}")
+    private String images;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path reviewsPath = Path.of(reviews);
+        ReviewImportJob job = reviewImportService.run(reviewImportService.newJob(reviewsPath),
+                reviewsPath, StringUtils.hasText(images) ? Path.of(images) : null);
+        job.getErrors().forEach(error -> log.warn("가져오기 실패 - {}행: {}", error.line(), error.message()));
+        if (job.isErrorsTruncated()) {
+            log.warn("실패 행이 많아 앞쪽 {}건만 표시 (전체 {}건)", job.getErrors().size(), job.getFailed());
+        }
+        int exitCode = job.getState() == ReviewImportJob.State.COMPLETED ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
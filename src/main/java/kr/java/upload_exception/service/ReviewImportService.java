@@ -0,0 +1,472 @@
+package kr.java.upload_exception.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import kr.java.upload_exception.exception.FileStorageException;
+import kr.java.upload_exception.exception.InvalidFileTypeException;
+import kr.java.upload_exception.model.dto.ReviewImportJob;
+import kr.java.upload_exception.model.entity.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 리뷰 일괄 가져오기 (다른 시스템에서 옮겨올 때)
+ *
+ * 입력: 리뷰 파일(NDJSON 한 줄에 하나, 또는 헤더가 있는 CSV) + 이미지 zip (선택)
+ *   {"title": "...", "content": "...", "rating": 5, "image": "photos/1.jpg", "createdAt": "2024-01-01T00:00:00Z"}
+ *   image는 zip 안의 경로, createdAt은 없으면 가져온 시각
+ *
+ * 묶음(review.import.batch-size) 단위로
+ * 1. 이미지를 여러 스레드로 동시에 저장소에 올림 (FileStorageService, 형식 검증 포함)
+ * 2. 리뷰 INSERT를 JDBC 배치 한 번으로 (ID는 DB가 생성한 키를 한꺼번에 받아옴)
+ * 3. 업로드 확정, 평점 통계, 캐시 무효화를 같은 트랜잭션에서 → 커밋 후 모든 서버가 캐시를 비우고 검색 색인
+ * 잘못된 행은 건너뛰고 줄 번호와 함께 기록, 묶음 저장이 실패하면 그 묶음의 행만 실패 처리
+ *
+ * 가져온 리뷰는 축소본을 만들지 않음 (화면은 원본 이미지 사용, 한꺼번에 만들면 썸네일 큐가 넘침)
+ */
+@Slf4j
+@Service
+public class ReviewImportService {
+
+    // review 테이블에 직접 INSERT (나머지 컬럼은 null)
+    private static final String INSERT_SQL =
+            "insert into review (title, content, rating, image_url, created_at) values (?, ?, ?, ?, ?)";
+
+    // 최근 작업만 보관 (진행 상황 조회용)
+    private static final int MAX_JOBS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileStorageService fileStorageService;
+    private final StorageOutboxService storageOutboxService;
+    private final BlobReferenceService blobReferenceService;
+    private final RatingStatsService ratingStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor reviewImportExecutor;
+    private final ThreadPoolTaskExecutor reviewImportImageExecutor;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final Map<String, ReviewImportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReviewImportJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    @Value("${review.import.batch-size:500}")
+    private int batchSize;
+
+    // zip 안 이미지 한 개 최대 크기 (폼 업로드와 같은 제한)
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxImageSize;
+
+    public ReviewImportService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               FileStorageService fileStorageService,
+                               StorageOutboxService storageOutboxService,
+                               BlobReferenceService blobReferenceService,
+                               RatingStatsService ratingStatsService,
+                               ApplicationEventPublisher eventPublisher,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Qualifier("reviewImportExecutor") ThreadPoolTaskExecutor reviewImportExecutor,
+                               @Qualifier("reviewImportImageExecutor") ThreadPoolTaskExecutor reviewImportImageExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.fileStorageService = fileStorageService;
+        this.storageOutboxService = storageOutboxService;
+        this.blobReferenceService = blobReferenceService;
+        this.ratingStatsService = ratingStatsService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.reviewImportExecutor = reviewImportExecutor;
+        this.reviewImportImageExecutor = reviewImportImageExecutor;
+    }
+
+    /**
+     * 입력 파일의 한 행
+     */
+    public record ImportRow(String title, String content, Integer rating, String image, String createdAt) {
+    }
+
+    // 검증을 통과한 행 (line: 오류 보고용 줄 번호, 작성일은 엔티티에서 자동 설정되므로 따로 보관)
+    private record Row(long line, Review review, String image, Instant createdAt) {
+    }
+
+    /**
+     * 백그라운드로 가져오기 시작 (API)
+     * @param workDir 업로드된 파일이 있는 임시 디렉토리 (끝나면 삭제)
+     */
+    public ReviewImportJob start(Path reviews, Path images, Path workDir) {
+        ReviewImportJob job = newJob(reviews);
+        try {
+            reviewImportExecutor.execute(() -> {
+                try {
+                    run(job, reviews, images);
+                } finally {
+                    deleteWorkDir(workDir);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // 대기 중인 작업이 너무 많음
+            synchronized (jobs) {
+                jobs.remove(job.getId());
+            }
+            deleteWorkDir(workDir);
+            throw e;
+        }
+        return job;
+    }
+
+    private void deleteWorkDir(Path workDir) {
+        try {
+            FileSystemUtils.deleteRecursively(workDir);
+        } catch (IOException e) {
+            log.warn("가져오기 임시 파일 삭제 실패 - {}", workDir);
+        }
+    }
+
+    public Optional<ReviewImportJob> findJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    public ReviewImportJob newJob(Path reviews) {
+        ReviewImportJob job = new ReviewImportJob(UUID.randomUUID().toString(), reviews.getFileName().toString());
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        return job;
+    }
+
+    /**
+     * 가져오기 실행 (호출한 스레드에서 끝까지, CLI는 직접 호출)
+     * @param images 이미지 zip (없으면 null, 이미지가 있는 행은 실패 처리)
+     */
+    public ReviewImportJob run(ReviewImportJob job, Path reviews, Path images) {
+        job.start();
+        log.info("리뷰 가져오기 시작 - job: {}, 파일: {}", job.getId(), reviews);
+        // ZipFile은 여러 스레드가 각자 항목을 동시에 읽을 수 있음
+        try (ZipFile zip = images != null ? new ZipFile(images.toFile()) : null;
+             RowReader reader = isCsv(reviews) ? new CsvRowReader(reviews) : new NdjsonRowReader(reviews)) {
+            List<Row> chunk = new ArrayList<>(batchSize);
+            ImportRow input;
+            while ((input = reader.next(job)) != null) {
+                job.rowRead();
+                Row row = toRow(job, reader.line(), input);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    importChunk(job, chunk, zip);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk, zip);
+            }
+            job.finish(null);
+        } catch (IOException | RuntimeException e) {
+            log.error("리뷰 가져오기 중단 - job: {}, {}", job.getId(), e.getMessage(), e);
+            job.finish(e.getMessage());
+        }
+        log.info("리뷰 가져오기 종료 - job: {}, 상태: {}, 성공: {}, 실패: {}, 분당 {}건",
+                job.getId(), job.getState(), job.getImported(), job.getFailed(), job.getReviewsPerMinute());
+        return job;
+    }
+
+    /**
+     * 입력 행 → Review (검증 실패 시 null, 오류 기록)
+     */
+    private Row toRow(ReviewImportJob job, long line, ImportRow input) {
+        Review review = new Review();
+        review.setTitle(input.title());
+        review.setContent(input.content());
+        review.setRating(input.rating());
+        Instant createdAt;
+        try {
+            createdAt = StringUtils.hasText(input.createdAt()) ? Instant.parse(input.createdAt()) : Instant.now();
+        } catch (DateTimeParseException e) {
+            job.rowFailed(line, "작성일 형식 오류 (ISO-8601): " + input.createdAt());
+            return null;
+        }
+
+        List<String> violations = new ArrayList<>();
+        if (input.rating() == null) {
+            violations.add("평점은 필수입니다.");
+        }
+        for (ConstraintViolation<Review> violation : validator.validate(review)) {
+            violations.add(violation.getMessage());
+        }
+        if (!violations.isEmpty()) {
+            job.rowFailed(line, String.join(", ", violations));
+            return null;
+        }
+        return new Row(line, review, StringUtils.hasText(input.image()) ? input.image() : null, createdAt);
+    }
+
+    /**
+     * 묶음 하나 가져오기
+     */
+    private void importChunk(ReviewImportJob job, List<Row> chunk, ZipFile zip) {
+        // 1. 이미지 동시 업로드
+        List<Future<String>> uploads = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            uploads.add(row.image() == null ? null
+                    : reviewImportImageExecutor.submit(() -> storeImage(zip, row.image())));
+        }
+        List<Row> rows = new ArrayList<>(chunk.size());
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            if (uploads.get(i) == null) {
+                rows.add(row);
+                continue;
+            }
+            try {
+                String key = uploads.get(i).get();
+                row.review().setImageUrl(fileStorageService.getUrl(key));
+                keys.add(key);
+                rows.add(row);
+            } catch (ExecutionException e) {
+                job.rowFailed(row.line(), "이미지 저장 실패 (" + row.image() + "): " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("가져오기가 중단되었습니다.", e);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        // 확정 대기 기록은 저장소가 이미지마다 파일을 쓰기 전에 남김 (FileStorageService.store)
+
+        // 2. 리뷰 저장 (묶음 전체가 한 트랜잭션)
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = insert(rows);
+                blobReferenceService.acquireAll(keys);
+                long[] counts = new long[6];
+                rows.forEach(row -> counts[row.review().getRating()]++);
+                ratingStatsService.reviewsAdded(counts);
+                // 커밋 후 CacheInvalidationBus로 모든 서버에 전달 → 목록 캐시 비움 + 검색 색인 (ReviewSearchIndex)
+                eventPublisher.publishEvent(ReviewChangedEvent.added(ids));
+            });
+        } catch (RuntimeException e) {
+            log.warn("가져오기 묶음 저장 실패 - job: {}, {}건, {}", job.getId(), rows.size(), e.getMessage());
+            keys.forEach(storageOutboxService::discardPromotion);
+            rows.forEach(row -> job.rowFailed(row.line(), "저장 실패: " + e.getMessage()));
+            return;
+        }
+        job.imported(rows.size());
+        log.info("가져오기 진행 - job: {}, 읽음: {}, 성공: {}, 실패: {}",
+                job.getId(), job.getRead(), job.getImported(), job.getFailed());
+    }
+
+    /**
+     * JDBC 배치 INSERT + 생성된 ID 받기
+     *
+     * ID가 IDENTITY라 Hibernate는 INSERT를 한 건씩 보내지만 (저장 즉시 ID가 필요)
+     * JdbcTemplate 배치는 생성된 키를 배치 전체에 대해 한 번에 돌려받을 수 있음
+     * MySQL은 rewriteBatchedStatements=true 일 때 여러 행 INSERT 한 문장으로 전송 (application-prod.yaml)
+     */
+    private List<Long> insert(List<Row> rows) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Row row = rows.get(i);
+                        Review review = row.review();
+                        ps.setString(1, review.getTitle());
+                        ps.setString(2, review.getContent());
+                        ps.setInt(3, review.getRating());
+                        ps.setString(4, review.getImageUrl());
+                        ps.setTimestamp(5, Timestamp.from(row.createdAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+        // 드라이버마다 키 컬럼 이름이 달라서 (id, GENERATED_KEY) 첫 값을 사용
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * zip 안의 이미지 하나를 저장소에 저장 (이미지 업로드 스레드에서 실행)
+     */
+    private String storeImage(ZipFile zip, String name) throws IOException {
+        if (zip == null) {
+            throw new IllegalArgumentException("이미지 zip 파일이 없습니다.");
+        }
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null || entry.isDirectory()) {
+            throw new IllegalArgumentException("zip 안에 이미지가 없습니다.");
+        }
+        // 헤더의 크기는 빠른 거부용 (위조할 수 있으므로 실제로 읽은 바이트 수로 다시 제한)
+        if (entry.getSize() > maxImageSize.toBytes()) {
+            throw new IllegalArgumentException("이미지 크기 제한 초과 (" + maxImageSize + ")");
+        }
+        // 확장자는 형식 추정에만 사용, 실제 형식은 저장소가 내용으로 검증
+        ImageType type = ImageType.fromFilename(name)
+                .orElseThrow(() -> new InvalidFileTypeException("지원하지 않는 이미지 확장자입니다."));
+        try (SizeLimitedInputStream in = new SizeLimitedInputStream(zip.getInputStream(entry), maxImageSize.toBytes())) {
+            try {
+                return fileStorageService.store(in, type.getContentType());
+            } catch (FileStorageException e) {
+                if (in.isExceeded()) { // 저장 중단 → 저장소가 쓰다 만 파일을 정리
+                    throw new IllegalArgumentException("이미지 크기 제한 초과 (" + maxImageSize + ")");
+                }
+                throw e;
+            }
+        }
+    }
+
+    private boolean isCsv(Path reviews) {
+        return reviews.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    /**
+     * 리뷰 파일 읽기 (형식 오류인 행은 기록하고 건너뜀, 끝이면 null)
+     */
+    private interface RowReader extends Closeable {
+        ImportRow next(ReviewImportJob job) throws IOException;
+
+        // 방금 읽은 행의 줄 번호
+        long line();
+    }
+
+    private class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRowReader(Path path) throws IOException {
+            reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public ImportRow next(ReviewImportJob job) throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return objectMapper.readValue(text, ImportRow.class);
+                } catch (JsonProcessingException e) {
+                    job.rowRead();
+                    job.rowFailed(line, "JSON 형식 오류: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private class CsvRowReader implements RowReader {
+        private final MappingIterator<ImportRow> rows;
+        private long line;
+
+        CsvRowReader(Path path) throws IOException {
+            // 첫 줄이 헤더 (title,content,rating,image,createdAt - 순서 무관, 모르는 컬럼은 무시)
+            rows = csvMapper.readerFor(ImportRow.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(path.toFile());
+        }
+
+        @Override
+        public ImportRow next(ReviewImportJob job) throws IOException {
+            while (true) {
+                try {
+                    if (!rows.hasNextValue()) {
+                        return null;
+                    }
+                    line = rows.getCurrentLocation().getLineNr();
+                    return rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // 형식 오류인 행은 건너뛰고 다음 행부터 (같은 위치에서 다시 실패하면 파일 전체 오류)
+                    if (rows.getCurrentLocation().getLineNr() <= line) {
+                        throw e;
+                    }
+                    job.rowRead();
+                    job.rowFailed(line, "CSV 형식 오류: " + e.getOriginalMessage());
+                }
+            }
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+}
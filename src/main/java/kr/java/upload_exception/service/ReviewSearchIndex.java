@@ -0,0 +1,302 @@
+package kr.java.upload_exception.service;
+
+import jakarta.annotation.PreDestroy;
+import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 리뷰 검색 색인 (Lucene, 서버 로컬 디스크)
+ *
+ * - 제목/내용을 한국어 형태소 분석기(nori)로 색인 → LIKE '%검색어%' 없이 역색인으로 조회
+ * - 리뷰가 바뀌면 CacheInvalidationBus 알림을 받아 해당 리뷰만 다시 색인 (모든 서버가 각자 자기 색인 갱신)
+ * - 서버 시작 후 백그라운드에서 DB 전체를 다시 색인 (서버가 꺼져 있던 동안의 변경 반영)
+ * - 점수(제목 가중치 2배) 순 정렬, 평점 필터, 페이지 단위 조회
+ *
+ * 색인에는 ID만 저장하고, 화면에 보여줄 값은 검색된 ID로 DB에서 조회 (색인 크기 최소화, 항상 최신 값 표시)
+ */
+@Component
+@Slf4j
+public class ReviewSearchIndex {
+
+    // 필드 이름
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String RATING = "rating";
+    private static final String GENERATION = "generation"; // 전체 재색인 회차 (재색인에서 빠진 = 삭제된 리뷰 정리용)
+
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2.0f, CONTENT, 1.0f);
+
+    // 페이지를 아무리 뒤로 넘겨도 이 순위까지만 (깊은 페이지 조회 비용 제한)
+    public static final int MAX_HITS = 1000;
+
+    private final ReviewRepository reviewRepository;
+    private final boolean rebuildOnStartup;
+    private final int batchSize;
+
+    private final Analyzer analyzer = new KoreanAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // 전체 재색인 중에 바뀐 리뷰 (재색인이 읽은 이전 값으로 덮어쓸 수 있으므로 끝난 뒤 다시 색인)
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile long generation = System.currentTimeMillis();
+
+    /**
+     * 검색 결과 (리뷰 ID, 점수 순)
+     *
+     * @param total      일치한 전체 건수 (exact가 false면 "이상")
+     * @param hasNext    다음 페이지가 있는지 (MAX_HITS까지만)
+     */
+    public record Hits(List<Long> ids, long total, boolean exact, boolean hasNext) {
+    }
+
+    public ReviewSearchIndex(ReviewRepository reviewRepository,
+                             CacheInvalidationBus invalidationBus,
+                             @Value("${review.search.index-dir:search-index}") String indexDir,
+                             @Value("${review.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                             @Value("${review.search.batch-size:1000}") int batchSize) {
+        this.reviewRepository = reviewRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.batchSize = batchSize;
+        try {
+            Path path = Paths.get(indexDir).toAbsolutePath().normalize();
+            Files.createDirectories(path);
+            this.directory = FSDirectory.open(path);
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            // 커밋하지 않은 변경도 보이는 검색기 (near-real-time)
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("검색 색인을 열 수 없습니다: " + indexDir, e);
+        }
+        invalidationBus.subscribe(event -> {
+            reindex(event.reviewId());
+            reindexAll(event.reviewIds());
+        });
+    }
+
+    /**
+     * 검색 (검색어는 공백으로 나눈 단어가 모두 포함된 리뷰, "따옴표"로 구문 검색, -단어 로 제외)
+     *
+     * @param minRating 이 평점 이상만 (1이면 필터 없음)
+     * @param page      0부터 시작
+     */
+    public Hits search(String text, int minRating, int page, int size) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(parser.parse(text), BooleanClause.Occur.MUST);
+        if (minRating > 1) {
+            // FILTER: 점수에 영향 없이 조건만 적용
+            query.add(IntPoint.newRangeQuery(RATING, minRating, 5), BooleanClause.Occur.FILTER);
+        }
+
+        // MAX_HITS 밖의 페이지는 곱하기 전에 걸러냄 (?page= 값이 크면 page * size가 int 범위를 넘어 음수가 됨)
+        if (page < 0 || size <= 0 || page > (MAX_HITS - 1) / size) {
+            return new Hits(List.of(), 0, true, false);
+        }
+        int from = page * size;
+        int to = Math.min(from + size, MAX_HITS);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // 다음 페이지 여부 확인용으로 한 건 더
+                TopDocs top = searcher.search(query.build(), Math.min(to + 1, MAX_HITS));
+                ScoreDoc[] docs = top.scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>(size);
+                for (int i = from; i < Math.min(to, docs.length); i++) {
+                    ids.add(Long.parseLong(storedFields.document(docs[i].doc, Set.of(ID)).get(ID)));
+                }
+                boolean exact = top.totalHits.relation == TotalHits.Relation.EQUAL_TO;
+                return new Hits(ids, top.totalHits.value, exact, docs.length > to);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("검색 실패", e);
+        }
+    }
+
+    /**
+     * 리뷰 한 건 다시 색인 (DB에 없으면 색인에서 삭제)
+     * 커밋 후에 호출되므로 DB에는 이미 바뀐 값이 있음
+     */
+    public void reindex(Long reviewId) {
+        if (reviewId == null) {
+            return;
+        }
+        synchronized (changedDuringRebuild) {
+            if (rebuilding) {
+                changedDuringRebuild.add(reviewId);
+            }
+        }
+        try {
+            Term term = new Term(ID, String.valueOf(reviewId));
+            Optional<Review> review = reviewRepository.findById(reviewId);
+            if (review.isPresent()) {
+                writer.updateDocument(term, toDocument(review.get()));
+            } else {
+                writer.deleteDocuments(term);
+            }
+            searcherManager.maybeRefresh(); // 다음 검색부터 반영
+        } catch (IOException e) {
+            // 다음 전체 재색인에서 반영됨
+            log.error("검색 색인 갱신 실패 - reviewId: {}, {}", reviewId, e.getMessage());
+        }
+    }
+
+    /**
+     * 여러 리뷰 한 번에 색인 (일괄 가져오기, 커밋 후 CacheInvalidationBus로 모든 서버에서 호출)
+     * 검색 결과 갱신은 마지막에 한 번만
+     */
+    public void reindexAll(List<Long> reviewIds) {
+        if (reviewIds.isEmpty()) {
+            return;
+        }
+        synchronized (changedDuringRebuild) {
+            if (rebuilding) {
+                changedDuringRebuild.addAll(reviewIds);
+            }
+        }
+        try {
+            for (Review review : reviewRepository.findAllById(reviewIds)) {
+                writer.updateDocument(new Term(ID, String.valueOf(review.getId())), toDocument(review));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("검색 색인 갱신 실패 - {}건, {}", reviewIds.size(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(this::rebuild, "search-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * DB 전체를 ID 순서로 batchSize씩 읽어 다시 색인
+     *
+     * 기존 색인을 지우지 않고 덮어쓰므로 재색인 중에도 검색 결과가 비지 않음
+     * 끝나면 이번 회차에서 덮어쓰지 않은 문서(그 사이 삭제된 리뷰)만 삭제
+     * 중간에 실패하면 이전 색인 + 일부 갱신된 상태로 남음 (다음 재시작 때 다시 시도)
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        generation = started; // 이후 색인되는 문서는 모두 이번 회차
+        synchronized (changedDuringRebuild) {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        }
+        long count = 0;
+        try {
+            Long lastId = 0L;
+            while (true) {
+                List<Review> batch = reviewRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (Review review : batch) {
+                    writer.updateDocument(new Term(ID, String.valueOf(review.getId())), toDocument(review));
+                }
+                count += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, started - 1));
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("검색 색인 재생성 완료 - {}건, {}ms", count, System.currentTimeMillis() - started);
+        } catch (IOException | RuntimeException e) {
+            log.error("검색 색인 재생성 실패 ({}건까지 색인): {}", count, e.getMessage());
+        } finally {
+            List<Long> changed;
+            synchronized (changedDuringRebuild) {
+                rebuilding = false;
+                changed = new ArrayList<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+            }
+            changed.forEach(this::reindex);
+        }
+    }
+
+    /**
+     * 주기적으로 디스크에 커밋 (검색에는 커밋 전에도 반영되어 있음, 서버가 비정상 종료될 때 잃는 양을 제한)
+     */
+    @Scheduled(fixedDelayString = "${review.search.commit-interval:30s}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.error("검색 색인 커밋 실패: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close(); // 남은 변경 커밋
+        directory.close();
+        analyzer.close();
+    }
+
+    private Document toDocument(Review review) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(review.getId()), Field.Store.YES));
+        document.add(new TextField(TITLE, review.getTitle(), Field.Store.NO));
+        document.add(new TextField(CONTENT, review.getContent(), Field.Store.NO));
+        document.add(new IntPoint(RATING, review.getRating()));
+        document.add(new LongPoint(GENERATION, generation));
+        return document;
+    }
+}
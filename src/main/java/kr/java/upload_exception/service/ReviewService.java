@@ -1,22 +1,48 @@
 package kr.java.upload_exception.service;
 
+import kr.java.upload_exception.config.CacheConfig;
+import kr.java.upload_exception.model.dto.CursorPage;
+import kr.java.upload_exception.model.dto.ReviewCursor;
+import kr.java.upload_exception.model.dto.ReviewSummary;
+import kr.java.upload_exception.model.dto.SearchPage;
 import kr.java.upload_exception.model.entity.Review;
 import kr.java.upload_exception.model.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor  // final 필드를 받는 생성자 자동 생성
 @Transactional(readOnly = true)  // 기본적으로 읽기 전용 (성능 최적화)
 public class ReviewService {
 
+    // 목록 한 페이지에 보여줄 리뷰 수
+    public static final int PAGE_SIZE = 20;
+
     private final ReviewRepository reviewRepository;
     private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StorageOutboxService storageOutboxService;
+    private final BlobReferenceService blobReferenceService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReviewSearchIndex reviewSearchIndex;
+    private final RatingStatsService ratingStatsService;
 
     /**
      * 전체 리뷰 목록 조회 (최신순)
@@ -25,9 +51,95 @@ public class ReviewService {
         return reviewRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    /**
+     * 리뷰 목록 페이지 조회 (최신순, 키셋 페이지네이션)
+     *
+     * PAGE_SIZE + 1 건을 조회해서 한 건이 더 있으면 다음(또는 이전) 페이지가 있다고 판단
+     *
+     * @param after  이 커서 다음(더 오래된) 페이지 - 다음 버튼
+     * @param before 이 커서 이전(더 최신) 페이지 - 이전 버튼
+     *
+     * 결과는 조회 캐시에 보관 (리뷰가 바뀌면 ReviewCacheInvalidator가 전부 비움)
+     * 키에 조회 시작 시점의 데이터 버전을 넣음: 비우는 동안 진행 중이던 조회가 끝나며 넣은 이전 결과는
+     * 버전이 올라간 뒤 다시 읽히지 않음 (전체 비우기는 진행 중인 조회를 기다리지 않으므로)
+     */
+    @Cacheable(cacheNames = CacheConfig.REVIEW_PAGES,
+            key = "@reviewVersion.current() + '|' + (#after ?: '') + '|' + (#before ?: '')", sync = true)
+    public CursorPage<ReviewSummary> findPage(String after, String before) {
+        PageRequest limit = PageRequest.of(0, PAGE_SIZE + 1);
+
+        if (StringUtils.hasText(before)) {
+            ReviewCursor cursor = ReviewCursor.parse(before);
+            List<ReviewSummary> rows = new ArrayList<>(
+                    reviewRepository.findNewerThan(cursor.createdAt(), cursor.id(), limit));
+            boolean hasPrev = rows.size() > PAGE_SIZE;
+            if (hasPrev) {
+                rows = new ArrayList<>(rows.subList(0, PAGE_SIZE));
+            }
+            Collections.reverse(rows); // 오름차순으로 가져왔으므로 화면 순서(최신순)로 뒤집기
+            // 커서 위치의 리뷰가 존재하므로 다음 페이지는 항상 있음
+            return toPage(rows, hasPrev, true);
+        }
+
+        List<ReviewSummary> rows;
+        boolean hasPrev;
+        if (StringUtils.hasText(after)) {
+            ReviewCursor cursor = ReviewCursor.parse(after);
+            rows = reviewRepository.findOlderThan(cursor.createdAt(), cursor.id(), limit);
+            hasPrev = true;
+        } else {
+            rows = reviewRepository.findFirstPage(limit);
+            hasPrev = false;
+        }
+        boolean hasNext = rows.size() > PAGE_SIZE;
+        if (hasNext) {
+            rows = rows.subList(0, PAGE_SIZE);
+        }
+        return toPage(rows, hasPrev, hasNext);
+    }
+
+    private CursorPage<ReviewSummary> toPage(List<ReviewSummary> rows, boolean hasPrev, boolean hasNext) {
+        if (rows.isEmpty()) {
+            // 커서 뒤에 남은 리뷰가 없으면(삭제 등) 빈 페이지 + 처음으로 돌아갈 수 있게만 함
+            return new CursorPage<>(rows, null, null);
+        }
+        String prevCursor = hasPrev ? ReviewCursor.of(rows.get(0)).encode() : null;
+        String nextCursor = hasNext ? ReviewCursor.of(rows.get(rows.size() - 1)).encode() : null;
+        return new CursorPage<>(rows, prevCursor, nextCursor);
+    }
+
+    /**
+     * 리뷰 검색 (제목/내용, 검색 점수 순)
+     *
+     * 검색 색인(ReviewSearchIndex)에서 ID만 찾고, 목록에 보여줄 값은 ID로 DB에서 조회
+     *
+     * @param minRating 이 평점 이상만 (1~5)
+     * @param page      0부터 시작
+     */
+    public SearchPage search(String query, int minRating, int page) {
+        if (!StringUtils.hasText(query)) {
+            return new SearchPage(List.of(), 0, true, 0, false);
+        }
+        ReviewSearchIndex.Hits hits = reviewSearchIndex.search(query.trim(), minRating, page, PAGE_SIZE);
+        if (hits.ids().isEmpty()) {
+            return new SearchPage(List.of(), hits.total(), hits.exact(), page, false);
+        }
+        Map<Long, ReviewSummary> byId = reviewRepository.findSummariesByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(ReviewSummary::getId, Function.identity()));
+        List<ReviewSummary> items = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull) // 색인에 반영되기 전에 삭제된 리뷰
+                .toList();
+        return new SearchPage(items, hits.total(), hits.exact(), page, hits.hasNext());
+    }
+
     /**
      * ID로 리뷰 개별 페이지 조회
+     *
+     * 외부(컨트롤러)에서 호출하면 조회 캐시를 거침 (캐시된 엔티티는 준영속 상태이므로 읽기 전용으로만 사용)
+     * 이 클래스 안에서의 호출(수정, 삭제)은 프록시를 거치지 않으므로 항상 DB에서 영속 엔티티를 조회
      */
+    @Cacheable(cacheNames = CacheConfig.REVIEW, sync = true)
     public Review findById(Long id) {
         return reviewRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("리뷰를 찾을 수 없습니다. ID: " + id));
@@ -35,53 +147,142 @@ public class ReviewService {
 
     /**
      * 리뷰 등록 (파일 업로드 포함)
+     *
+     * 파일 업로드는 트랜잭션 밖에서 먼저 수행 (업로드 동안 DB 커넥션을 잡지 않음)
+     * → 리뷰 저장 트랜잭션에서 업로드 확정, 저장에 실패하면 업로드 파일은 대기열이 정리
      */
-    @Transactional  // 쓰기 작업이므로 제일위의 readOnly 해제
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)  // 클래스의 readOnly 트랜잭션도 시작하지 않음
     public Review create(Review review, MultipartFile imageFile) {
         // 이미지 파일이 있으면 저장
-        if (imageFile != null && !imageFile.isEmpty()) {
-            String storedFilename = fileStorageService.store(imageFile);
-            // 웹에서 접근 가능한 URL 경로 설정
-//            review.setImageUrl("/images/" + storedFilename);
-            review.setImageUrl(fileStorageService.getUrl(storedFilename));
+        return saveNew(review, uploadImage(imageFile));
+    }
+
+    /**
+     * 리뷰 등록 (요청 본문의 이미지 스트림을 바로 저장, StreamingReviewController)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Review create(Review review, InputStream imageContent, String contentType) {
+        String storedFilename = fileStorageService.store(imageContent, contentType); // 확정 대기 기록 포함
+        return saveNew(review, storedFilename);
+    }
+
+    // 리뷰 저장 + 업로드 확정 (저장 실패 시 업로드 파일은 대기열이 정리)
+    private Review saveNew(Review review, String storedFilename) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (storedFilename != null) {
+                    // 웹에서 접근 가능한 URL 경로 설정
+//                    review.setImageUrl("/images/" + storedFilename);
+                    review.setImageUrl(fileStorageService.getUrl(storedFilename));
+                    blobReferenceService.acquire(storedFilename);
+                }
+                Review saved = reviewRepository.save(review);
+                ratingStatsService.reviewAdded(saved.getRating());
+                eventPublisher.publishEvent(new ReviewChangedEvent(saved.getId())); // 커밋 후 목록 캐시 비움
+                if (storedFilename != null) {
+                    // 커밋 후 축소본 생성 (ThumbnailService)
+                    eventPublisher.publishEvent(
+                            new ReviewImageStoredEvent(saved.getId(), storedFilename, saved.getImageUrl()));
+                }
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            discardUpload(storedFilename);
+            throw e;
         }
-        return reviewRepository.save(review);
     }
 
     /**
      * 리뷰 수정 (이미지 교체 가능)
+     * 새 이미지 업로드는 create()와 같이 트랜잭션 밖에서 먼저 수행
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Review update(Long id, Review updatedData, MultipartFile newImageFile) {
-        Review review = findById(id);
+        // 새 이미지가 업로드된 경우 먼저 저장
+        String storedFilename = uploadImage(newImageFile);
+        try {
+            return transactionTemplate.execute(status -> {
+                Review review = findById(id);
+                int oldRating = review.getRating();
+
+                // 기본 정보 업데이트
+                review.setTitle(updatedData.getTitle());
+                review.setContent(updatedData.getContent());
+                review.setRating(updatedData.getRating());
+                ratingStatsService.ratingChanged(oldRating, review.getRating());
 
-        // 기본 정보 업데이트
-        review.setTitle(updatedData.getTitle());
-        review.setContent(updatedData.getContent());
-        review.setRating(updatedData.getRating());
+                // JPA (dirty checking (@Transactional)으로 인해서 setter사용시, 알아서 save()해줌!
 
-        // JPA (dirty checking (@Transactional)으로 인해서 setter사용시, 알아서 save()해줌!
+                if (storedFilename != null) {
+                    blobReferenceService.acquire(storedFilename);
+                    replaceImage(review, storedFilename);
+                }
+                eventPublisher.publishEvent(new ReviewChangedEvent(id)); // 커밋 후 조회 캐시 비움
+                return review;  // 트랜잭션 종료 시 자동으로 UPDATE 실행 (더티 체킹)
+            });
+        } catch (RuntimeException e) {
+            discardUpload(storedFilename);
+            throw e;
+        }
+    }
 
-        // 새 이미지가 업로드된 경우
-        if (newImageFile != null && !newImageFile.isEmpty()) {
-            // 기존 이미지 삭제
-            deleteOldImage(review.getImageUrl());
+    /**
+     * 파일 업로드 (확정 대기 기록은 저장소가 파일을 쓰기 전에 함, 파일이 없으면 null)
+     */
+    private String uploadImage(MultipartFile imageFile) {
+        if (imageFile == null || imageFile.isEmpty()) {
+            return null;
+        }
+        return fileStorageService.store(imageFile);
+    }
 
-            // 새 이미지 저장
-            String storedFilename = fileStorageService.store(newImageFile);
-            review.setImageUrl("/images/" + storedFilename);
+    // 리뷰 저장 실패 → 올려둔 파일을 바로 정리하도록 요청
+    private void discardUpload(String storedFilename) {
+        if (storedFilename != null) {
+            storageOutboxService.discardPromotion(storedFilename);
         }
-        return review;  // 트랜잭션 종료 시 자동으로 UPDATE 실행 (더티 체킹)
+    }
+
+    /**
+     * 이미 저장소에 올라간 파일을 리뷰 이미지로 연결 (직접 업로드 완료 시)
+     * verification: 파일 검증 (연결 직전에 같은 트랜잭션 안에서 실행, 실패하면 예외 → 롤백)
+     */
+    @Transactional
+    public Review attachImage(Long id, String key, Runnable verification) {
+        Review review = findById(id);
+        if (reviewRepository.existsByImageUrl(fileStorageService.getUrl(key))) {
+            throw new IllegalArgumentException("이미 다른 리뷰에 연결된 파일입니다.");
+        }
+        verification.run();
+        blobReferenceService.acquire(key);
+        replaceImage(review, key);
+        eventPublisher.publishEvent(new ReviewChangedEvent(id));
+        return review;
+    }
+
+    /**
+     * 기존 이미지(축소본 포함)를 삭제하고 새 이미지로 교체
+     * 축소본은 커밋 후 다시 생성
+     */
+    private void replaceImage(Review review, String storedFilename) {
+        deleteOldImage(review.getImageUrl());
+        review.setImageUrl(fileStorageService.getUrl(storedFilename));
+        review.setThumbnailUrl(null);
+        review.setDisplayUrl(null);
+        eventPublisher.publishEvent(
+                new ReviewImageStoredEvent(review.getId(), storedFilename, review.getImageUrl()));
     }
 
     /**
      * 기존 이미지 파일 삭제 헬퍼 메서드 (private: 내부에서만 사용)
+     * 실제 삭제는 커밋 후 대기열에서 수행 (롤백되면 파일도 그대로 남음)
+     * 다른 리뷰와 공유하는 파일(내용 기반 저장)은 마지막 참조가 사라질 때만 삭제
      */
     private void deleteOldImage(String imageUrl) {
         if (StringUtils.hasText(imageUrl)) { // <- imageUrl != null && !imageUrl.isBlank()이걸 한꺼번에 처리
             // "/images/abc.jpg" → "abc.jpg" 추출
             String filename = imageUrl.replace("/images/", "");
-            fileStorageService.delete(filename);
+            blobReferenceService.release(filename);
         }
     }
 
@@ -94,6 +295,8 @@ public class ReviewService {
         // 이미지 파일 삭제
         deleteOldImage(review.getImageUrl());
         reviewRepository.delete(review);
+        ratingStatsService.reviewRemoved(review.getRating());
+        eventPublisher.publishEvent(new ReviewChangedEvent(id));
     }
 
 }
@@ -0,0 +1,42 @@
+package kr.java.upload_exception.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 리뷰 데이터 버전 (리뷰가 등록/수정/삭제될 때마다 증가)
+ *
+ * - 목록/상세 응답의 ETag → 바뀐 것이 없으면 304 (JSP 렌더링 생략)
+ * - 렌더링된 리뷰 카드 조각 캐시(FragmentCacheTag)의 키 → 버전이 바뀌면 이전 조각은 더 이상 쓰이지 않음
+ * - 목록 페이지 조회 캐시(ReviewService.findPage)의 키 → 무효화 중에 끝난 조회 결과가 남아도 쓰이지 않음
+ *
+ * 증가는 ReviewCacheInvalidator가 조회 캐시를 비운 "뒤"에 함
+ * (먼저 올리면 새 버전으로 이전 캐시 내용을 읽어 잘못된 ETag가 붙을 수 있음)
+ * 서버마다 따로 세므로 시작할 때 만든 epoch을 붙여 다른 서버의 같은 숫자와 구분
+ */
+@Component
+public class ReviewVersion {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 현재 버전 (응답을 만들기 전에 한 번 읽고, 그 값으로 ETag와 조각 캐시 키를 만듦)
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * 약한 ETag (같은 데이터면 같은 화면이지만 바이트 단위로 같음을 보장하지는 않음)
+     */
+    public String eTag(long version) {
+        return "W/\"" + epoch + "-" + version + "\"";
+    }
+
+    void increment() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,65 @@
+package kr.java.upload_exception.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.ResponsePublisher;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * S3 이미지 비동기 조회 (file.s3.async=true)
+ *
+ * 본문을 InputStream이 아니라 ByteBuffer 발행자(Publisher)로 받는다.
+ * 구독자가 요청(request)한 만큼만 S3에서 읽으므로, 느린 클라이언트에 맞춰 전송 속도가 조절된다.
+ * 업로드/삭제는 그대로 S3FileStorageService (요청 본문을 받는 동안은 어차피 요청 스레드가 필요)
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${file.storage.type:local}' == 's3' and ${file.s3.async:false}")
+public class S3AsyncImageReader {
+
+    private final S3AsyncClient s3AsyncClient;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    /**
+     * 객체 조회 (조건부/범위 조건은 S3가 판단 → 304, 206, 416은 S3Exception 상태 코드로 전달)
+     *
+     * @param range           단일 범위 (없으면 null)
+     * @param ifNoneMatch     If-None-Match (없으면 null)
+     * @param ifModifiedSince If-Modified-Since (없으면 null)
+     */
+    public CompletableFuture<ResponsePublisher<GetObjectResponse>> get(String key, String range,
+                                                                        String ifNoneMatch, Instant ifModifiedSince) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range(range)
+                .ifNoneMatch(ifNoneMatch)
+                .ifModifiedSince(ifModifiedSince)
+                .build();
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toPublisher());
+    }
+
+    /**
+     * 메타데이터만 조회 (HEAD 요청)
+     */
+    public CompletableFuture<HeadObjectResponse> head(String key, String ifNoneMatch, Instant ifModifiedSince) {
+        return s3AsyncClient.headObject(HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .ifNoneMatch(ifNoneMatch)
+                .ifModifiedSince(ifModifiedSince)
+                .build());
+    }
+}
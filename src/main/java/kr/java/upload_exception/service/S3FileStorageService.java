@@ -1,22 +1,44 @@
 package kr.java.upload_exception.service;
 
 import kr.java.upload_exception.exception.FileStorageException;
-import kr.java.upload_exception.exception.InvalidFileTypeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -39,46 +61,182 @@ public class S3FileStorageService implements FileStorageService {
 
     // SDK가 알아서 구성해서 주입해줌
     private final S3Client s3Client;
+    private final ImageDiskCache imageDiskCache; // 조회용 로컬 캐시 (삭제 시 무효화)
+    private final S3MultipartUploader multipartUploader;
+    private final ImageContentValidator imageContentValidator; // 이미지 형식 검증 (허용 형식은 ImageType 참고)
+    private final StorageOutboxService storageOutboxService; // 업로드 파일 확정 대기 기록 (올리기 전에)
+
+    // DeleteObjects 한 번에 보낼 수 있는 최대 키 수
+    private static final int DELETE_BATCH_SIZE = 1000;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
-    // 허용할 이미지 MIME 타입 목록
-    // MIME 타입: 파일의 종류를 나타내는 표준 형식 (예: image/jpeg = JPEG 이미지)
-    private static final List<String> ALLOWED_TYPES = List.of(
-            "image/jpeg",   // JPG, JPEG 이미지
-            "image/png",    // PNG 이미지
-            "image/gif",    // GIF 이미지
-            "image/webp"    // WebP 이미지
-    );
+    // 이 크기 이상이면 멀티파트 업로드 (파트 병렬 전송)
+    @Value("${file.s3.multipart-threshold:8MB}")
+    private DataSize multipartThreshold;
+
+    // 내용 기반 저장 모드 (ContentAddress 참고)
+    @Value("${file.storage.content-addressed:false}")
+    private boolean contentAddressed;
 
     @Override
     public String store(MultipartFile file) {
-        // 파일 검증
-        validateFile(file);
+        if (file.isEmpty()) {
+            throw new FileStorageException("빈 파일입니다.");
+        }
 
-        // 파일명에서 확장자 추출
-        String extension = extractExtension(file.getOriginalFilename());
-        // S3 키: 폴더구조/UUID.확장자
-        String key = UUID.randomUUID() + extension;
+        // 업로드 스트림 하나로 앞부분 형식 검증 → 그대로 S3 전송 (형식이 다르면 전송 전에 거부)
+        // 확장자/Content-Type은 원본 파일명이나 요청 헤더가 아니라 실제 형식에서 결정
+        try (InputStream raw = file.getInputStream()) {
+            ImageContentValidator.Validated validated = imageContentValidator.validate(raw, file.getContentType());
+            ImageType type = validated.type();
+
+            // 내용 기반 저장 모드: 해시를 키로 사용, 이미 있으면 업로드 생략
+            if (contentAddressed) {
+                String key = contentKey(validated.stream(), type.getExtension());
+                // 있는지 확인하기 전에 예약 → 지우는 중이던 객체면 삭제가 끝난 뒤에 확인하므로 다시 올림
+                storageOutboxService.recordPendingPromotion(key, Duration.ZERO);
+                if (!exists(key)) {
+                    try (InputStream in = file.getInputStream()) {
+                        upload(key, in, file.getSize(), type.getContentType());
+                    }
+                }
+                return key;
+            }
+
+            // S3 키: 폴더구조/UUID.확장자
+            String key = UUID.randomUUID() + type.getExtension();
+            storageOutboxService.recordPendingPromotion(key, Duration.ZERO);
+            upload(key, validated.stream(), file.getSize(), type.getContentType());
+            return key;
+        } catch (IOException | S3Exception e) {
+            throw new FileStorageException("S3 업로드 실패: " + e.getMessage());
+        }
+    }
 
+    /**
+     * 스트림 저장 (StreamingReviewController: 요청 본문을 임시 파일 없이 바로 S3로)
+     *
+     * 크기를 모르므로 멀티파트 기준 크기까지만 메모리로 읽어 봄
+     * - 그 안에 끝나면 단일 PUT
+     * - 넘으면 읽은 부분 + 나머지 스트림을 멀티파트로 (파트 버퍼는 S3MultipartUploader 풀)
+     * 내용 기반 저장 모드는 키(해시)를 끝까지 읽어야 알 수 있으므로 임시 파일에 한 번 받아서 해시 계산 후 업로드
+     */
+    @Override
+    public String store(InputStream content, String contentType) {
+        try {
+            ImageContentValidator.Validated validated = imageContentValidator.validate(content, contentType);
+            ImageType type = validated.type();
+
+            if (contentAddressed) {
+                Path temp = Files.createTempFile("s3-upload-", ".tmp");
+                try {
+                    MessageDigest digest = ContentAddress.newDigest();
+                    Files.copy(new DigestInputStream(validated.stream(), digest), temp, StandardCopyOption.REPLACE_EXISTING);
+                    String key = ContentAddress.key(digest, type.getExtension());
+                    storageOutboxService.recordPendingPromotion(key, Duration.ZERO);
+                    if (!exists(key)) {
+                        try (InputStream in = Files.newInputStream(temp)) {
+                            upload(key, in, Files.size(temp), type.getContentType());
+                        }
+                    }
+                    return key;
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+
+            String key = UUID.randomUUID() + type.getExtension();
+            storageOutboxService.recordPendingPromotion(key, Duration.ZERO);
+            int threshold = (int) multipartThreshold.toBytes();
+            byte[] head = validated.stream().readNBytes(threshold);
+            if (head.length < threshold) {
+                upload(key, new ByteArrayInputStream(head), head.length, type.getContentType());
+            } else {
+                multipartUploader.upload(bucketName, key, type.getContentType(),
+                        new SequenceInputStream(new ByteArrayInputStream(head), validated.stream()));
+            }
+            return key;
+        } catch (IOException | S3Exception e) {
+            throw new FileStorageException("S3 업로드 실패: " + e.getMessage());
+        }
+    }
+
+    private void upload(String key, InputStream in, long size, String contentType) {
+        // 큰 파일: 멀티파트로 나눠서 병렬 업로드 (실패 시 자동 abort)
+        if (size >= multipartThreshold.toBytes()) {
+            multipartUploader.upload(bucketName, key, contentType, in);
+            return;
+        }
+
+        // S3에 업로드할 요청 생성
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(size)
+                .build();
+
+        // 파일 업로드
+        s3Client.putObject(request,
+                // request를 어떻게 처리할 것인가?
+                RequestBody.fromInputStream(in, size));
+    }
+
+    /**
+     * 내용 해시 키 계산
+     * S3는 키를 먼저 정해야 올릴 수 있으므로, 서버 임시 저장소에 이미 받아 둔 파일을 한 번 읽어 계산
+     */
+    private String contentKey(InputStream content, String extension) throws IOException {
+        MessageDigest digest = ContentAddress.newDigest();
+        new DigestInputStream(content, digest).transferTo(OutputStream.nullOutputStream());
+        return ContentAddress.key(digest, extension);
+    }
+
+    @Override
+    public void storeAt(String key, InputStream content, long size, String contentType) {
         try {
-            // S3에 업로드할 요청 생성
             PutObjectRequest request = PutObjectRequest.builder()
                     .bucket(bucketName)
                     .key(key)
-                    .contentType(file.getContentType())
-                    .contentLength(file.getSize())
+                    .contentType(contentType)
+                    .contentLength(size)
                     .build();
+            s3Client.putObject(request, RequestBody.fromInputStream(content, size));
+        } catch (S3Exception e) {
+            throw new FileStorageException("S3 업로드 실패: " + e.getMessage());
+        }
+    }
 
-            // 파일 업로드
-            s3Client.putObject(request,
-                    // request를 어떻게 처리할 것인가?
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+    @Override
+    public InputStream load(String key) {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+        } catch (S3Exception e) {
+            throw new FileStorageException("S3 다운로드 실패: " + e.getMessage());
+        }
+    }
 
-            return key;
-        } catch (IOException | S3Exception e) {
-            throw new FileStorageException("S3 업로드 실패: " + e.getMessage());
+    @Override
+    public boolean exists(String key) {
+        if (!StringUtils.hasText(key)) return false;
+        try {
+            s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false; // HEAD 응답에는 본문이 없어 NoSuchKey 대신 404로 오는 경우
+            }
+            throw new FileStorageException("S3 조회 실패: " + e.getMessage());
         }
     }
 
@@ -91,36 +249,55 @@ public class S3FileStorageService implements FileStorageService {
                     .key(key)
                     .build();
             s3Client.deleteObject(request);
+            imageDiskCache.evict(key);
         } catch (S3Exception e) {
             // 로그만 남기고 진행
             log.error("S3 삭제 실패: {}", e.getMessage());
         }
     }
 
+    /**
+     * DeleteObjects로 최대 1000개씩 한 번에 삭제 (키마다 왕복하지 않음)
+     * quiet 모드: 응답에는 실패한 키만 담김
+     */
     @Override
-    public String getUrl(String key) {
-        // 로컬 저장소의 경우 /images/ 경로로 접근
-        return "/images/" + key;
-    }
-
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new FileStorageException("빈 파일입니다.");
-        }
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_TYPES.contains(contentType)) {
-            throw new InvalidFileTypeException("허용되지 않는 파일 형식입니다.");
+    public Set<String> deleteAll(Collection<String> keys) {
+        List<String> targets = keys.stream().filter(StringUtils::hasText).distinct().toList();
+        Set<String> failed = new HashSet<>();
+        for (int from = 0; from < targets.size(); from += DELETE_BATCH_SIZE) {
+            List<String> chunk = targets.subList(from, Math.min(from + DELETE_BATCH_SIZE, targets.size()));
+            Set<String> chunkFailed = new HashSet<>();
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream()
+                                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                                        .toList())
+                                .quiet(true)
+                                .build())
+                        .build());
+                for (S3Error error : response.errors()) {
+                    log.error("S3 삭제 실패 - key: {}, {}", error.key(), error.message());
+                    chunkFailed.add(error.key());
+                }
+            } catch (SdkException e) {
+                log.error("S3 일괄 삭제 실패 ({}개): {}", chunk.size(), e.getMessage());
+                chunkFailed.addAll(chunk);
+            }
+            for (String key : chunk) {
+                if (!chunkFailed.contains(key)) {
+                    imageDiskCache.evict(key);
+                }
+            }
+            failed.addAll(chunkFailed);
         }
+        return failed;
     }
 
-    /**
-     * 파일명에서 확장자 추출
-     * 예: "photo.jpg" → ".jpg"
-     */
-    private String extractExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "";
-        }
-        return filename.substring(filename.lastIndexOf("."));
+    @Override
+    public String getUrl(String key) {
+        // 로컬 저장소의 경우 /images/ 경로로 접근
+        return "/images/" + key;
     }
 }
@@ -0,0 +1,181 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * S3 멀티파트 업로드
+ *
+ * 스트림을 partSize 단위로 읽어 여러 파트를 병렬 전송한다.
+ * - 버퍼는 고정 개수 풀에서 빌려 쓰므로 동시에 메모리에 올라가는 양은 bufferCount * partSize 이하
+ *   (풀이 비면 읽기가 대기 → 느린 S3 연결이 메모리를 무한정 늘리지 않음)
+ * - 한 파트라도 실패하면 AbortMultipartUpload로 이미 올라간 파트를 정리
+ * - 전체 크기를 몰라도 동작 (마지막 파트만 partSize보다 작을 수 있음)
+ */
+@Slf4j
+public class S3MultipartUploader {
+
+    // S3 제약: 마지막 파트를 제외한 모든 파트는 5MB 이상
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final Executor executor;
+    private final int partSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    /**
+     * @param executor    파트 전송을 실행할 풀
+     * @param partSize    파트 크기 (5MB 이상)
+     * @param bufferCount 버퍼 풀 크기 (= 동시에 전송 중일 수 있는 파트 수)
+     */
+    public S3MultipartUploader(S3Client s3Client, Executor executor, int partSize, int bufferCount) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("파트 크기는 5MB 이상이어야 합니다.");
+        }
+        this.s3Client = s3Client;
+        this.executor = executor;
+        this.partSize = partSize;
+        this.buffers = new ArrayBlockingQueue<>(bufferCount);
+        // 버퍼는 필요할 때 만들지 않고 미리 만들어 재사용 (GC 부담 감소)
+        for (int i = 0; i < bufferCount; i++) {
+            buffers.add(new byte[partSize]);
+        }
+    }
+
+    /**
+     * 스트림 전체를 멀티파트로 업로드
+     * @return 업로드한 바이트 수
+     */
+    public long upload(String bucket, String key, String contentType, InputStream content) {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .uploadId();
+
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        long total = 0;
+        try {
+            int partNumber = 1;
+            while (true) {
+                byte[] buffer = buffers.take(); // 풀이 비어 있으면 앞선 파트 전송이 끝날 때까지 대기
+                int length;
+                try {
+                    length = readFully(content, buffer);
+                } catch (IOException e) {
+                    buffers.add(buffer);
+                    throw e;
+                }
+                if (length == 0 && partNumber > 1) {
+                    buffers.add(buffer); // 이전 파트가 정확히 partSize로 끝난 경우
+                    break;
+                }
+                total += length;
+
+                int number = partNumber++;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> uploadPart(bucket, key, uploadId, number, buffer, length), executor)
+                        .whenComplete((part, error) -> buffers.add(buffer))); // 전송이 끝나면 버퍼 반납
+
+                if (length < partSize) {
+                    break; // 스트림 끝
+                }
+                // 이미 실패한 파트가 있으면 나머지를 읽지 않고 중단
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+            }
+
+            List<CompletedPart> completed = new ArrayList<>();
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completed.add(part.join());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+            return total;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, key, uploadId, parts);
+            throw new FileStorageException("S3 업로드 중단: " + key);
+        } catch (IOException | RuntimeException e) {
+            abort(bucket, key, uploadId, parts);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new FileStorageException("S3 멀티파트 업로드 실패: " + cause.getMessage());
+        }
+    }
+
+    private CompletedPart uploadPart(String bucket, String key, String uploadId,
+                                     int partNumber, byte[] buffer, int length) {
+        // ByteArrayInputStream: 복사 없이 버퍼를 그대로 전송 (재시도 시 reset 가능)
+        String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length))
+                .eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abort(String bucket, String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        // 전송 중인 파트가 끝난 뒤 중단해야 파트가 남지 않음 (버퍼도 이때 반납됨)
+        for (CompletableFuture<CompletedPart> part : parts) {
+            try {
+                part.join();
+            } catch (RuntimeException ignored) {
+                // 실패한 파트는 무시
+            }
+        }
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            // 버킷 수명주기 규칙(미완료 멀티파트 정리)에 맡김
+            log.error("S3 멀티파트 업로드 중단 실패 - key: {}, {}", key, e.getMessage());
+        }
+    }
+
+    // 버퍼가 가득 차거나 스트림이 끝날 때까지 읽기
+    private int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int read = in.read(buffer, total, buffer.length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
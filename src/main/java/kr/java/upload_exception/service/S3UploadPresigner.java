@@ -0,0 +1,81 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.dto.PresignedUpload;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * S3 presigned PUT URL 발급
+ * S3Presigner는 spring-cloud-aws-starter-s3가 자동 구성
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "s3")
+public class S3UploadPresigner implements UploadPresigner {
+
+    private final S3Presigner s3Presigner;
+    private final S3Client s3Client;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Override
+    public PresignedUpload presign(String key, String contentType, long contentLength, Duration ttl) {
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(ttl)
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength(contentLength)
+                        // 한 번만 쓸 수 있도록 (만료 전 같은 주소로 다시 보내면 412, 검증한 객체를 덮어쓰지 못함)
+                        .ifNoneMatch("*")
+                        .build())
+                .build());
+
+        // 브라우저가 직접 넣을 수 없는 헤더(host, content-length)는 빼고 전달
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : presigned.signedHeaders().entrySet()) {
+            String name = header.getKey();
+            if (!name.equalsIgnoreCase("host") && !name.equalsIgnoreCase("content-length")) {
+                headers.put(name, String.join(",", header.getValue()));
+            }
+        }
+        return new PresignedUpload(key, presigned.url().toString(), "PUT", headers, presigned.expiration());
+    }
+
+    @Override
+    public Optional<UploadedObject> findUploaded(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return Optional.of(new UploadedObject(head.contentLength(), head.contentType()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) { // HEAD 응답에는 오류 코드 본문이 없음
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package kr.java.upload_exception.service;
+
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 읽은 바이트 수로 크기 제한 (선언된 크기를 믿을 수 없는 스트림용)
+ * - multipart 스트리밍 업로드 (spring.servlet.multipart.max-file-size, 요청 전체는 max-request-size)
+ * - 일괄 가져오기 zip 항목 (zip 헤더의 크기는 위조할 수 있음)
+ * 저장소가 읽기 오류를 FileStorageException으로 감싸므로 초과 여부를 따로 기록 (isExceeded)
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+    private final long limit;
+    private long count;
+    private volatile boolean exceeded;
+
+    public SizeLimitedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b;
+        try {
+            b = super.read();
+        } catch (FileUploadSizeException e) {
+            exceeded = true; // 요청 전체 크기 제한 (max-request-size)
+            throw e;
+        }
+        if (b >= 0) {
+            counted(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n;
+        try {
+            n = super.read(b, off, len);
+        } catch (FileUploadSizeException e) {
+            exceeded = true;
+            throw e;
+        }
+        if (n > 0) {
+            counted(n);
+        }
+        return n;
+    }
+
+    private void counted(int n) throws IOException {
+        count += n;
+        if (count > limit) {
+            exceeded = true;
+            throw new IOException("파일 크기 제한 초과 (" + limit + " bytes)");
+        }
+    }
+}
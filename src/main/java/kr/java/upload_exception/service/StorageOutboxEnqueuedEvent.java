@@ -0,0 +1,8 @@
+package kr.java.upload_exception.service;
+
+/**
+ * 저장소 작업이 대기열에 추가되었음을 알리는 이벤트
+ * 커밋 직후 StorageOutboxProcessor를 깨우는 용도 (주기 실행을 기다리지 않음)
+ */
+public record StorageOutboxEnqueuedEvent() {
+}
@@ -0,0 +1,229 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.entity.BlobReference;
+import kr.java.upload_exception.model.entity.StorageOutbox;
+import kr.java.upload_exception.model.entity.StorageOutbox.Operation;
+import kr.java.upload_exception.model.repository.BlobReferenceRepository;
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import kr.java.upload_exception.model.repository.StorageOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 저장소 작업 대기열 처리기
+ *
+ * - 작업이 추가된 트랜잭션이 커밋되면 바로 깨어나고, 그 외에는 주기적으로 실행
+ * - 저장소 I/O는 트랜잭션 밖에서 수행 (DB 커넥션을 잡은 채 S3를 기다리지 않음)
+ * - 삭제는 모아서 한 번에 요청 (S3: DeleteObjects, 로컬: 병렬 삭제)
+ *   단, 내용 기반 저장의 공유 파일은 키마다 참조 행을 잠근 채 확인하고 지움 (deleteBlobIfUnused)
+ * - 실패한 작업은 지수 백오프로 재시도
+ * - 여러 서버가 같은 작업을 처리해도 삭제는 멱등이라 문제 없음
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StorageOutboxProcessor {
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final StorageOutboxRepository storageOutboxRepository;
+    private final ReviewRepository reviewRepository;
+    private final BlobReferenceRepository blobReferenceRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.outbox.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${file.storage.content-addressed:false}")
+    private boolean contentAddressed;
+
+    // 통계 (삭제한 키 수, 실패한 키 수, 일괄 삭제 호출 수)
+    private final AtomicLong deletedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    /**
+     * 커밋 직후 실행 (storageOutboxExecutor: 스레드 1개, 이미 대기 중이면 합쳐짐)
+     */
+    @Async("storageOutboxExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnqueued(StorageOutboxEnqueuedEvent event) {
+        processDue();
+    }
+
+    /**
+     * 주기 실행 (서버 재시작, 재시도 대기, 확정 기한 만료 처리)
+     */
+    @Scheduled(fixedDelayString = "${file.outbox.poll-interval:10s}")
+    public void poll() {
+        processDue();
+    }
+
+    public void processDue() {
+        List<StorageOutbox> due;
+        do {
+            due = storageOutboxRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+                    Instant.now(), PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+
+            // 작업별 삭제할 키를 모아서 한 번에 삭제 (S3: DeleteObjects 1000개 단위)
+            Set<Long> done = new HashSet<>();
+            Map<StorageOutbox, List<String>> keysByTask = new LinkedHashMap<>();
+            for (StorageOutbox task : due) {
+                if (contentAddressed && task.getOperation() != Operation.DELETE) {
+                    if (deleteBlobIfUnused(task)) {
+                        done.add(task.getId());
+                    }
+                    continue;
+                }
+                keysByTask.put(task, keysToDelete(task));
+            }
+            List<String> keys = keysByTask.values().stream().flatMap(List::stream).toList();
+            Set<String> failed = keys.isEmpty() ? Set.of() : fileStorageService.deleteAll(keys);
+            batchCount.incrementAndGet();
+            deletedCount.addAndGet(keys.size() - failed.size());
+            failedCount.addAndGet(failed.size());
+
+            keysByTask.forEach((task, taskKeys) -> {
+                if (taskKeys.stream().noneMatch(failed::contains)) {
+                    done.add(task.getId());
+                    if (task.getOperation() == Operation.RELEASE && !taskKeys.isEmpty()) {
+                        blobReferenceRepository.deleteIfUnreferenced(task.getObjectKey());
+                    }
+                }
+            });
+            for (StorageOutbox task : due) {
+                if (done.contains(task.getId())) {
+                    continue;
+                }
+                Instant next = Instant.now().plus(backoff(task.getAttempts()));
+                log.warn("저장소 작업 실패 ({}회) - {} {}, 다음 시도: {}",
+                        task.getAttempts() + 1, task.getOperation(), task.getObjectKey(), next);
+                task.retryAt(next);
+            }
+            if (!done.isEmpty()) {
+                storageOutboxRepository.deleteAllByIdInBatch(done);
+            }
+            if (done.size() < due.size()) {
+                storageOutboxRepository.saveAll(
+                        due.stream().filter(task -> !done.contains(task.getId())).toList());
+            }
+            // 한 배치가 모두 실패했으면 다음 주기에 다시 (무한 반복 방지)
+            if (done.isEmpty()) {
+                break;
+            }
+        } while (due.size() == batchSize);
+    }
+
+    private List<String> keysToDelete(StorageOutbox task) {
+        String key = task.getObjectKey();
+        return switch (task.getOperation()) {
+            case DELETE -> List.of(key);
+            case RELEASE -> {
+                // 그 사이 다른 리뷰가 같은 파일을 쓰기 시작했거나, 확정 대기 중인 업로드가 있으면 유지
+                if (blobReferenceRepository.findRefCount(key).orElse(0) > 0
+                        || storageOutboxRepository.existsByOperationAndObjectKey(Operation.PROMOTE, key)) {
+                    yield List.of();
+                }
+                yield withVariants(key);
+            }
+            case PROMOTE -> {
+                // 기한 안에 확정되지 않은 업로드: 어떤 리뷰도 쓰지 않으면 고아 파일이므로 삭제
+                if (reviewRepository.existsByImageUrl(fileStorageService.getUrl(key))) {
+                    yield List.of();
+                }
+                log.info("확정되지 않은 업로드 파일 삭제: {}", key);
+                yield withVariants(key);
+            }
+        };
+    }
+
+    /**
+     * 내용 기반 저장의 공유 파일 정리 (RELEASE, 기한이 지난 PROMOTE)
+     *
+     * 참조 행을 잠근 한 트랜잭션 안에서 "쓰는 곳이 없는지 확인 → 파일 삭제 → 참조 행 삭제"
+     * 같은 내용을 올리는 업로드는 파일이 있는지 보기 전에 같은 행을 잠그고 확정 대기를 기록하므로
+     * (StorageOutboxService.recordPendingPromotion)
+     * - 업로드가 먼저 기록했으면 여기서 그 기록을 보고 파일을 남김
+     * - 여기서 먼저 잠갔으면 업로드는 삭제가 끝난 뒤에 파일이 없음을 보고 다시 씀
+     * 파일을 지우는 동안 DB 연결을 잡고 있지만, 참조가 모두 사라진 파일에서만 일어남
+     *
+     * @return 처리 완료 (지웠거나 아직 쓰는 곳이 있음), false면 삭제 실패 → 재시도
+     */
+    private boolean deleteBlobIfUnused(StorageOutbox task) {
+        String key = task.getObjectKey();
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            // 행이 없어도(이 모드를 켜기 전 파일 등) 만들어서 잠금 → 업로드와 항상 순서가 정해짐
+            blobReferenceRepository.reserve(key);
+            int refCount = blobReferenceRepository.findForUpdate(key).map(BlobReference::getRefCount).orElse(0);
+            if (refCount > 0
+                    || storageOutboxRepository.existsByOperationAndObjectKeyAndIdNot(Operation.PROMOTE, key, task.getId())
+                    || (task.getOperation() == Operation.PROMOTE
+                    && reviewRepository.existsByImageUrl(fileStorageService.getUrl(key)))) {
+                return true;
+            }
+            if (task.getOperation() == Operation.PROMOTE) {
+                log.info("확정되지 않은 업로드 파일 삭제: {}", key);
+            }
+            List<String> keys = withVariants(key);
+            Set<String> failed = fileStorageService.deleteAll(keys);
+            deletedCount.addAndGet(keys.size() - failed.size());
+            failedCount.addAndGet(failed.size());
+            if (!failed.isEmpty()) {
+                return false; // 참조 행은 남겨 두고 다음 시도에서 다시 확인
+            }
+            blobReferenceRepository.deleteIfUnreferenced(key);
+            return true;
+        }));
+    }
+
+    private List<String> withVariants(String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        keys.addAll(ImageVariant.derivedKeys(key)); // 축소본, 형식 변환본
+        return keys;
+    }
+
+    public long getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getPendingCount() {
+        return storageOutboxRepository.count();
+    }
+
+    // 30초, 1분, 2분, ... 최대 1시간
+    private Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(30).multipliedBy(1L << Math.min(attempts, 10));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
@@ -0,0 +1,113 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.entity.StorageOutbox;
+import kr.java.upload_exception.model.entity.StorageOutbox.Operation;
+import kr.java.upload_exception.model.repository.BlobReferenceRepository;
+import kr.java.upload_exception.model.repository.StorageOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * 저장소 작업 대기열에 작업 기록
+ *
+ * 업로드 흐름
+ * 1. (트랜잭션 밖) 파일 업로드: 저장소가 파일을 쓰기 "전에" recordPendingPromotion()으로 "확정 대기" 기록
+ *    (별도 짧은 트랜잭션, FileStorageService.store) → 쓰는 도중 서버가 죽어도 대기 기록이 남아 정리됨
+ * 2. (리뷰 트랜잭션) 리뷰 저장 + confirmPromotion() → 커밋되면 확정, 롤백되면 대기 기록이 남음
+ * 3. 확정되지 않은 채 기한이 지나면 StorageOutboxProcessor가 고아 파일로 보고 삭제
+ *
+ * 삭제 흐름
+ * - (리뷰 트랜잭션) enqueueDelete() → 커밋된 뒤에만 실제 삭제
+ */
+@Service
+@RequiredArgsConstructor
+public class StorageOutboxService {
+
+    private final StorageOutboxRepository storageOutboxRepository;
+    private final BlobReferenceRepository blobReferenceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 업로드 후 리뷰 저장까지 기다려 주는 시간
+    @Value("${file.outbox.promotion-grace:10m}")
+    private Duration promotionGrace;
+
+    @Value("${file.storage.content-addressed:false}")
+    private boolean contentAddressed;
+
+    /**
+     * 파일 삭제 예약 (호출한 트랜잭션에 참여)
+     */
+    @Transactional
+    public void enqueueDelete(String key) {
+        storageOutboxRepository.save(new StorageOutbox(Operation.DELETE, key, Instant.now()));
+        eventPublisher.publishEvent(new StorageOutboxEnqueuedEvent());
+    }
+
+    /**
+     * 공유 파일 참조 해제 예약 (호출한 트랜잭션에 참여)
+     * 처리 시점에 참조가 남아 있지 않을 때만 삭제됨
+     */
+    @Transactional
+    public void enqueueRelease(String key) {
+        storageOutboxRepository.save(new StorageOutbox(Operation.RELEASE, key, Instant.now()));
+        eventPublisher.publishEvent(new StorageOutboxEnqueuedEvent());
+    }
+
+    /**
+     * 올릴 파일을 "확정 대기"로 기록 (독립 트랜잭션으로 바로 커밋, 파일을 쓰기 전에 호출)
+     *
+     * 내용 기반 저장에서는 같은 키의 참조 행을 먼저 잠금 (없으면 0으로 생성)
+     * - StorageOutboxProcessor가 그 파일을 지우는 중이면 삭제가 끝날 때까지 기다림
+     *   → 이 기록이 커밋된 "뒤에" 파일이 있는지 확인하면, 그 파일은 더 이상 지워지지 않음
+     * - 처리기는 같은 행을 잠근 채 확정 대기 기록을 확인하므로, 이 기록을 보면 파일을 남김
+     *
+     * @param extraWait 기본 대기 시간에 더할 시간 (직접 업로드는 서명 유효 시간만큼)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordPendingPromotion(String key, Duration extraWait) {
+        if (contentAddressed) {
+            blobReferenceRepository.reserve(key);
+        }
+        Instant due = Instant.now().plus(promotionGrace).plus(extraWait);
+        storageOutboxRepository.save(new StorageOutbox(Operation.PROMOTE, key, due));
+    }
+
+    /**
+     * 업로드 파일 확정 (리뷰 저장과 같은 트랜잭션)
+     */
+    @Transactional
+    public void confirmPromotion(String key) {
+        storageOutboxRepository.deleteByOperationAndObjectKey(Operation.PROMOTE, key);
+    }
+
+    /**
+     * 여러 파일 한 번에 확정 (일괄 가져오기, 리뷰 저장과 같은 트랜잭션)
+     */
+    @Transactional
+    public void confirmPromotions(Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            storageOutboxRepository.deleteByOperationAndObjectKeyIn(Operation.PROMOTE, keys);
+        }
+    }
+
+    /**
+     * 리뷰 저장 실패 → 확정 대기 중인 파일을 바로 정리하도록 앞당김
+     * 내용 기반 저장에서는 같은 파일을 동시에 올린 다른 요청이 있을 수 있으므로 기한까지 기다림
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void discardPromotion(String key) {
+        if (contentAddressed) {
+            return;
+        }
+        storageOutboxRepository.reschedule(Operation.PROMOTE, key, Instant.now());
+        eventPublisher.publishEvent(new StorageOutboxEnqueuedEvent());
+    }
+}
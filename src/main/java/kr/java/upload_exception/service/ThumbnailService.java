@@ -0,0 +1,151 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 리뷰 이미지 축소본(썸네일) 생성
+ *
+ * - 리뷰 저장 트랜잭션이 커밋된 뒤 thumbnailExecutor(고정 크기 풀)에서 비동기로 실행
+ * - 원본은 건드리지 않고 ImageVariant별 파생 키로 저장
+ * - 실패하거나 만들 필요가 없으면(원본이 더 작음, WebP 등 디코딩 불가) URL을 비워둠 → 화면은 원본 사용
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ThumbnailService {
+
+    private final FileStorageService fileStorageService;
+    private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageContentValidator imageContentValidator;
+
+    @Value("${file.storage.content-addressed:false}")
+    private boolean contentAddressed;
+
+    @Async("thumbnailExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onImageStored(ReviewImageStoredEvent event) {
+        String format = formatOf(event.key());
+        if (format == null) {
+            return; // 확장자로 형식을 알 수 없으면 원본만 사용
+        }
+
+        Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+        BufferedImage original = null;
+        for (ImageVariant variant : ImageVariant.values()) {
+            String variantKey = variant.keyFor(event.key());
+            // 내용 기반 저장: 같은 이미지로 이미 만들어 둔 축소본이 있으면 그대로 사용
+            if (contentAddressed && fileStorageService.exists(variantKey)) {
+                urls.put(variant, fileStorageService.getUrl(variantKey));
+                continue;
+            }
+            if (original == null) {
+                original = readOriginal(event.key());
+                if (original == null) {
+                    return;
+                }
+            }
+            try {
+                byte[] resized = resize(original, format, variant.getMaxWidth());
+                if (resized == null) {
+                    continue; // 원본이 이미 충분히 작음
+                }
+                fileStorageService.storeAt(variantKey, new ByteArrayInputStream(resized),
+                        resized.length, "image/" + format);
+                urls.put(variant, fileStorageService.getUrl(variantKey));
+            } catch (Exception e) {
+                // 이 크기만 건너뜀 (화면에서는 원본으로 대체)
+                log.warn("썸네일 생성 실패 - key: {}, variant: {}, {}", event.key(), variant, e.getMessage());
+            }
+        }
+        if (urls.isEmpty()) {
+            return;
+        }
+
+        // 그 사이 이미지가 교체/삭제되었다면 0건 → 방금 만든 파일은 고아가 되므로 정리
+        // (내용 기반 저장에서는 다른 리뷰와 공유할 수 있으므로 원본 삭제 시 함께 정리되도록 둠)
+        int updated = reviewRepository.updateImageVariants(event.reviewId(), event.imageUrl(),
+                urls.get(ImageVariant.THUMBNAIL), urls.get(ImageVariant.DISPLAY));
+        if (updated > 0) {
+            eventPublisher.publishEvent(new ReviewChangedEvent(event.reviewId())); // 캐시된 리뷰/목록에 축소본 반영
+        }
+        if (updated == 0 && !contentAddressed) {
+            for (ImageVariant variant : urls.keySet()) {
+                fileStorageService.delete(variant.keyFor(event.key()));
+            }
+        }
+    }
+
+    /**
+     * 원본 읽기 (ImageIO가 지원하지 않는 형식이거나 실패하면 null, 크기 초과도 실패)
+     */
+    private BufferedImage readOriginal(String key) {
+        try (InputStream in = fileStorageService.load(key)) {
+            // 지원하지 않는 형식 (예: WebP)이면 null, 너무 큰 이미지는 디코딩 전에 거부
+            return imageContentValidator.decode(in);
+        } catch (Exception e) {
+            log.warn("썸네일 생성 실패 (원본 읽기) - key: {}, {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 가로 maxWidth 이하로 비율 유지 축소
+     * @return 인코딩된 이미지, 축소할 필요가 없으면 null
+     */
+    private byte[] resize(BufferedImage original, String format, int maxWidth) throws IOException {
+        if (original.getWidth() <= maxWidth) {
+            return null;
+        }
+        int height = Math.max(1, Math.round((float) original.getHeight() * maxWidth / original.getWidth()));
+
+        // JPEG는 알파 채널을 쓸 수 없음
+        int type = format.equals("jpeg") ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage resized = new BufferedImage(maxWidth, height, type);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(original, 0, 0, maxWidth, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(resized, format, out)) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 키의 확장자 → ImageIO 형식 이름
+     */
+    private String formatOf(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) return "jpeg";
+        if (lower.endsWith(".png")) return "png";
+        if (lower.endsWith(".gif")) return "gif";
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package kr.java.upload_exception.service;
+
+/**
+ * 원본 이미지를 다시 인코딩해서 제공하는 형식 (Accept 협상, ImageTranscoder)
+ *
+ * 변환본의 키도 원본 키에서 계산한다. (ImageVariant와 같이 DB에 따로 저장하지 않음)
+ * 예: abc.jpg → abc.jpg.webp, 축소본 abc_thumb.jpg → abc_thumb.jpg.webp
+ * 선언 순서 = 우선순위 (같은 화질에서 더 작은 형식 먼저)
+ */
+public enum TranscodeFormat {
+    AVIF("image/avif", "avif"),
+    WEBP("image/webp", "webp");
+
+    private final String contentType;
+    private final String extension;
+
+    TranscodeFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 원본 키 → 변환본 키
+     */
+    public String keyFor(String originalKey) {
+        return originalKey + "." + extension;
+    }
+}
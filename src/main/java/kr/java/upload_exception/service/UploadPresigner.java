@@ -0,0 +1,33 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.dto.PresignedUpload;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 직접 업로드용 서명 URL 발급 (저장소별 구현)
+ *
+ * - S3: S3 presigned PUT URL → 브라우저가 버킷으로 바로 업로드
+ * - 로컬: 앱이 서명을 검증하는 업로드 주소 (개발/테스트용)
+ */
+public interface UploadPresigner {
+
+    /**
+     * 서명된 업로드 요청 발급
+     * Content-Type과 크기를 서명에 포함하므로 다른 형식/크기로는 업로드할 수 없음
+     */
+    PresignedUpload presign(String key, String contentType, long contentLength, Duration ttl);
+
+    /**
+     * 업로드가 끝난 객체 조회 (완료 요청 검증용)
+     * @return 없으면 empty
+     */
+    Optional<UploadedObject> findUploaded(String key);
+
+    /**
+     * 업로드된 객체 정보
+     */
+    record UploadedObject(long size, String contentType) {
+    }
+}
@@ -0,0 +1,59 @@
+package kr.java.upload_exception.view;
+
+import jakarta.servlet.jsp.JspException;
+import jakarta.servlet.jsp.PageContext;
+import jakarta.servlet.jsp.tagext.JspFragment;
+import jakarta.servlet.jsp.tagext.SimpleTagSupport;
+import kr.java.upload_exception.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * JSP 조각 캐시 태그 (WEB-INF/tld/fragment.tld)
+ *
+ * <frag:cache key="card-${review.id}-${reviewVersion}"> ... </frag:cache>
+ * 처음에는 본문을 렌더링해서 그 HTML을 보관하고, 같은 키로 다시 오면 본문을 실행하지 않고 보관한 HTML을 씀
+ * 키에 데이터 버전을 넣어 두면 따로 비울 필요 없음 (이전 버전 조각은 크기/시간 제한으로 정리됨)
+ */
+public class FragmentCacheTag extends SimpleTagSupport {
+
+    private String key;
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public void doTag() throws JspException, IOException {
+        JspFragment body = getJspBody();
+        if (body == null) {
+            return;
+        }
+        Cache cache = fragmentCache();
+        if (cache == null || key == null) {
+            body.invoke(null); // 캐시 없이 그대로 출력
+            return;
+        }
+
+        String html = cache.get(key, String.class);
+        if (html == null) {
+            StringWriter writer = new StringWriter();
+            body.invoke(writer);
+            html = writer.toString();
+            cache.put(key, html);
+        }
+        getJspContext().getOut().write(html);
+    }
+
+    private Cache fragmentCache() {
+        PageContext pageContext = (PageContext) getJspContext();
+        WebApplicationContext context =
+                WebApplicationContextUtils.findWebApplicationContext(pageContext.getServletContext());
+        return context != null ? context.getBean(CacheManager.class).getCache(CacheConfig.REVIEW_FRAGMENTS) : null;
+    }
+}
@@ -31,10 +31,13 @@
       </div>
     </p>
 
-    <%-- 리뷰 이미지 표시 --%>
+    <%-- 리뷰 이미지 표시 (600px 축소본, 클릭하면 원본) --%>
     <c:if test="${not empty review.imageUrl}">
       <p>
-        <img src="${review.imageUrl}" alt="리뷰 이미지" style="max-width: 500px; max-height: 500px;">
+        <a href="${review.imageUrl}" target="_blank">
+          <img src="${empty review.displayUrl ? review.imageUrl : review.displayUrl}" alt="리뷰 이미지"
+               style="max-width: 500px; max-height: 500px;">
+        </a>
       </p>
     </c:if>
 
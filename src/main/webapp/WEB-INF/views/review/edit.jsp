@@ -51,7 +51,7 @@
     <c:if test="${not empty review.imageUrl}">
       <p>
         <label>현재 이미지</label><br>
-        <img src="${review.imageUrl}" alt="현재 이미지" style="max-width: 200px; max-height: 200px;">
+        <img src="${empty review.displayUrl ? review.imageUrl : review.displayUrl}" alt="현재 이미지" style="max-width: 200px; max-height: 200px;">
       </p>
     </c:if>
 
@@ -19,8 +19,9 @@
         <%--
             enctype="multipart/form-data": 파일 업로드 시 필수 설정
             일반 폼은 텍스트만 전송하지만, 이 설정으로 바이너리 파일도 전송 가능
+            streamingUpload: 본문을 임시 파일 없이 바로 저장 (StreamingReviewController, 파일 필드는 맨 뒤에 둘 것)
         --%>
-        <form action="<c:url value='/reviews'/>" method="post" enctype="multipart/form-data">
+        <form action="<c:url value="${streamingUpload ? '/reviews/upload' : '/reviews'}"/>" method="post" enctype="multipart/form-data">
             <p>
                 <label for="title">제목</label><br>
                 <input type="text" id="title" name="title" required
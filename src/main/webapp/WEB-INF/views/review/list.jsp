@@ -1,6 +1,8 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%-- JSTL: core 라이브러리: c:if, c:forEach 등 조건문/반복문 태그 제공 --%>
 <%@ taglib prefix="c" uri="jakarta.tags.core" %>
+<%-- 조각 캐시: 리뷰 카드 HTML을 데이터 버전별로 보관 (FragmentCacheTag) --%>
+<%@ taglib prefix="frag" uri="/WEB-INF/tld/fragment.tld" %>
 
 <html>
   <jsp:include page="../common/head.jsp">
@@ -23,6 +25,28 @@
       <a href="<c:url value='/reviews/new'/>">새 리뷰 작성</a>
     </p>
 
+    <%-- 검색 (ReviewController.search) --%>
+    <form action="<c:url value='/reviews/search'/>" method="get" class="d-flex gap-2 mb-3">
+      <input type="text" name="q" placeholder="제목, 내용 검색" class="form-control" style="max-width: 300px;">
+      <button type="submit" class="btn btn-outline-primary">검색</button>
+    </form>
+
+    <%-- 평점 통계 (집계 테이블에서 조회, RatingStatsService) --%>
+    <c:if test="${stats.count > 0}">
+      <div style="border: 1px solid #eee; padding: 10px; margin-bottom: 10px; max-width: 400px;">
+        <div>평균 ${stats.average}점 (${stats.count}개 리뷰)</div>
+        <c:forEach var="bucket" items="${stats.histogram}">
+          <div class="d-flex align-items-center">
+            <div style="width: 40px;">${bucket.rating}점</div>
+            <div class="flex-grow-1" style="background: #f1f1f1; height: 10px;">
+              <div style="background: #f5b301; height: 10px; width: ${bucket.percent}%;"></div>
+            </div>
+            <div class="ps-2" style="width: 60px;">${bucket.count}</div>
+          </div>
+        </c:forEach>
+      </div>
+    </c:if>
+
     <%-- 리뷰가 없는 경우 --%>
     <c:if test="${empty reviews}">
       <p>등록된 리뷰가 없습니다.</p>
@@ -30,34 +54,53 @@
 
     <%-- 리뷰 목록 반복 출력 --%>
     <%-- c:forEach: Java의 for-each와 동일한 역할 --%>
+    <%-- 같은 버전이면 카드 본문(별점 반복 포함)을 다시 렌더링하지 않음 --%>
     <c:forEach var="review" items="${reviews}">
-      <div style="border: 1px solid #ccc; padding: 15px; margin: 10px 0;">
-          <%-- 이미지가 있으면 썸네일 표시 --%>
-        <c:if test="${not empty review.imageUrl}">
-          <img src="${review.imageUrl}" alt="리뷰 이미지"
-               style="max-width: 150px; max-height: 150px;">
-        </c:if>
-
-        <h3>
-          <a href="<c:url value='/reviews/${review.id}'/>">${review.title}</a>
-        </h3>
-
-          <%-- 평점을 별(★)로 표시 --%>
-        <div class="d-flex justify-content-start">
-          <div class="pe-1">평점:</div>
+      <frag:cache key="card-${review.id}-${reviewVersion}">
+        <div style="border: 1px solid #ccc; padding: 15px; margin: 10px 0;">
+            <%-- 이미지가 있으면 썸네일 표시 (축소본이 아직 없으면 원본) --%>
+          <c:if test="${not empty review.imageUrl}">
+            <img src="${empty review.thumbnailUrl ? review.imageUrl : review.thumbnailUrl}" alt="리뷰 이미지"
+                 style="max-width: 150px; max-height: 150px;">
+          </c:if>
+
+          <h3>
+            <a href="<c:url value='/reviews/${review.id}'/>">${review.title}</a>
+          </h3>
+
+            <%-- 평점을 별(★)로 표시 --%>
           <div class="d-flex justify-content-start">
-            <c:forEach begin="1" end="${review.rating}"><span>★</span></c:forEach>
-            <c:forEach begin="${review.rating + 1}" end="5"><span>☆</span></c:forEach>
+            <div class="pe-1">평점:</div>
+            <div class="d-flex justify-content-start">
+              <c:forEach begin="1" end="${review.rating}"><span>★</span></c:forEach>
+              <c:forEach begin="${review.rating + 1}" end="5"><span>☆</span></c:forEach>
+            </div>
+            <div class="ps-1">(${review.rating}/5)</div>
           </div>
-          <div class="ps-1">(${review.rating}/5)</div>
+
+          <p style="color: #666; font-size: 0.9em;">
+              <%-- 작성일시 출력 --%>
+              ${review.createdAt}
+          </p>
         </div>
+      </frag:cache>
+    </c:forEach>
 
-        <p style="color: #666; font-size: 0.9em;">
-            <%-- 작성일시 출력 --%>
-            ${review.createdAt}
-        </p>
+    <%-- 페이지 이동 (커서 기반: 현재 페이지의 처음/마지막 리뷰 위치를 넘김) --%>
+    <c:if test="${page.hasPrev or page.hasNext}">
+      <div class="d-flex justify-content-between">
+        <div>
+          <c:if test="${page.hasPrev}">
+            <a href="<c:url value='/reviews'><c:param name='before' value='${page.prevCursor}'/></c:url>">&laquo; 이전</a>
+          </c:if>
+        </div>
+        <div>
+          <c:if test="${page.hasNext}">
+            <a href="<c:url value='/reviews'><c:param name='after' value='${page.nextCursor}'/></c:url>">다음 &raquo;</a>
+          </c:if>
+        </div>
       </div>
-    </c:forEach>
+    </c:if>
 
   </body>
 </html>
@@ -0,0 +1,79 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="jakarta.tags.core" %>
+
+<html>
+  <jsp:include page="../common/head.jsp">
+    <jsp:param name="pageName" value="${pageName}"/>
+  </jsp:include>
+
+  <body>
+    <jsp:include page="../common/nav.jsp">
+      <jsp:param name="pageName" value="${pageName}"/>
+    </jsp:include>
+
+    <%-- 검색 폼 (GET: 검색 결과 주소를 그대로 공유/새로고침 가능) --%>
+    <form action="<c:url value='/reviews/search'/>" method="get" class="d-flex gap-2 mb-3">
+      <input type="text" name="q" value="<c:out value='${q}'/>" placeholder="제목, 내용 검색" class="form-control" style="max-width: 300px;">
+      <select name="minRating" class="form-select" style="max-width: 140px;">
+        <c:forEach begin="1" end="5" var="r">
+          <option value="${r}" ${r == minRating ? 'selected' : ''}>${r}점 이상</option>
+        </c:forEach>
+      </select>
+      <button type="submit" class="btn btn-primary">검색</button>
+    </form>
+
+    <c:if test="${not empty q}">
+      <p>
+        검색 결과 ${result.total}건<c:if test="${not result.totalExact}"> 이상</c:if>
+      </p>
+    </c:if>
+
+    <c:if test="${not empty q and empty reviews}">
+      <p>검색 결과가 없습니다.</p>
+    </c:if>
+
+    <%-- 검색 점수 순 --%>
+    <c:forEach var="review" items="${reviews}">
+      <div style="border: 1px solid #ccc; padding: 15px; margin: 10px 0;">
+        <c:if test="${not empty review.imageUrl}">
+          <img src="${empty review.thumbnailUrl ? review.imageUrl : review.thumbnailUrl}" alt="리뷰 이미지"
+               style="max-width: 150px; max-height: 150px;">
+        </c:if>
+
+        <h3>
+          <a href="<c:url value='/reviews/${review.id}'/>">${review.title}</a>
+        </h3>
+
+        <div class="d-flex justify-content-start">
+          <div class="pe-1">평점:</div>
+          <div class="d-flex justify-content-start">
+            <c:forEach begin="1" end="${review.rating}"><span>★</span></c:forEach>
+            <c:forEach begin="${review.rating + 1}" end="5"><span>☆</span></c:forEach>
+          </div>
+          <div class="ps-1">(${review.rating}/5)</div>
+        </div>
+
+        <p style="color: #666; font-size: 0.9em;">
+            ${review.createdAt}
+        </p>
+      </div>
+    </c:forEach>
+
+    <%-- 페이지 이동 (검색 결과는 점수 순이라 커서 대신 페이지 번호 사용, 최대 1000건까지) --%>
+    <c:if test="${result.hasPrev or result.hasNext}">
+      <div class="d-flex justify-content-between">
+        <div>
+          <c:if test="${result.hasPrev}">
+            <a href="<c:url value='/reviews/search'><c:param name='q' value='${q}'/><c:param name='minRating' value='${minRating}'/><c:param name='page' value='${result.page - 1}'/></c:url>">&laquo; 이전</a>
+          </c:if>
+        </div>
+        <div>
+          <c:if test="${result.hasNext}">
+            <a href="<c:url value='/reviews/search'><c:param name='q' value='${q}'/><c:param name='minRating' value='${minRating}'/><c:param name='page' value='${result.page + 1}'/></c:url>">다음 &raquo;</a>
+          </c:if>
+        </div>
+      </div>
+    </c:if>
+
+  </body>
+</html>
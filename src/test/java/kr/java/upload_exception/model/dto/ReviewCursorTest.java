@@ -0,0 +1,38 @@
+package kr.java.upload_exception.model.dto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReviewCursorTest {
+
+    @Test
+    void encodeAndParseRoundTrip() {
+        ReviewCursor cursor = new ReviewCursor(Instant.parse("2025-12-12T01:02:03.456789Z"), 42L);
+
+        assertThat(cursor.encode()).isEqualTo("2025-12-12T01:02:03.456789Z_42");
+        assertThat(ReviewCursor.parse(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void ofTakesLastSortKeyFromSummary() {
+        Instant createdAt = Instant.parse("2025-12-12T00:00:00Z");
+        ReviewSummary summary = new ReviewSummary(7L, "제목", 5, null, null, createdAt);
+
+        assertThat(ReviewCursor.of(summary)).isEqualTo(new ReviewCursor(createdAt, 7L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "42", "2025-12-12T01:02:03Z", "2025-12-12T01:02:03Z_", "not-a-date_42",
+            "2025-12-12T01:02:03Z_abc"})
+    void rejectsMalformedValue(String value) {
+        assertThatThrownBy(() -> ReviewCursor.parse(value))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("잘못된 페이지 요청입니다.");
+    }
+}
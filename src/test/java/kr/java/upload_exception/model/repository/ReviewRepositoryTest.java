@@ -0,0 +1,96 @@
+package kr.java.upload_exception.model.repository;
+
+import kr.java.upload_exception.model.dto.ReviewSummary;
+import kr.java.upload_exception.model.entity.Review;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 키셋 페이지네이션 경계 (createdAt DESC, id DESC)
+ * 같은 시각에 저장된 리뷰가 있어도 id로 순서가 정해져 빠지거나 겹치는 행이 없어야 함
+ */
+@DataJpaTest
+class ReviewRepositoryTest {
+
+    private static final Instant T1 = Instant.parse("2025-12-12T00:00:01Z");
+    private static final Instant T2 = Instant.parse("2025-12-12T00:00:02Z");
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    // 최신순: c(T2), b(T1), a(T1), older(T0) - a, b는 같은 시각
+    private Long older;
+    private Long a;
+    private Long b;
+    private Long c;
+
+    @BeforeEach
+    void setUp() {
+        older = save(Instant.parse("2025-12-12T00:00:00Z"));
+        a = save(T1);
+        b = save(T1);
+        c = save(T2);
+        em.clear();
+    }
+
+    @Test
+    void firstPageIsNewestFirstWithIdTieBreak() {
+        assertThat(ids(reviewRepository.findFirstPage(PageRequest.of(0, 3)))).containsExactly(c, b, a);
+    }
+
+    @Test
+    void olderThanExcludesCursorAndKeepsSameTimestampWithSmallerId() {
+        assertThat(ids(reviewRepository.findOlderThan(T1, b, PageRequest.of(0, 10)))).containsExactly(a, older);
+        assertThat(ids(reviewRepository.findOlderThan(T1, a, PageRequest.of(0, 10)))).containsExactly(older);
+    }
+
+    @Test
+    void newerThanIsAscendingFromCursor() {
+        assertThat(ids(reviewRepository.findNewerThan(T1, a, PageRequest.of(0, 10)))).containsExactly(b, c);
+        assertThat(ids(reviewRepository.findNewerThan(T2, c, PageRequest.of(0, 10)))).isEmpty();
+    }
+
+    @Test
+    void walkingPagesVisitsEveryRowOnce() {
+        List<Long> visited = new ArrayList<>();
+        List<ReviewSummary> page = reviewRepository.findFirstPage(PageRequest.of(0, 1));
+        while (!page.isEmpty()) {
+            ReviewSummary last = page.get(page.size() - 1);
+            visited.addAll(ids(page));
+            page = reviewRepository.findOlderThan(last.getCreatedAt(), last.getId(), PageRequest.of(0, 1));
+        }
+        assertThat(visited).containsExactly(c, b, a, older);
+    }
+
+    // createdAt은 Auditing이 채우므로 저장 후 직접 덮어씀 (같은 시각 재현)
+    private Long save(Instant createdAt) {
+        Review review = new Review();
+        review.setTitle("제목");
+        review.setContent("내용");
+        review.setRating(5);
+        Long id = em.persistAndFlush(review).getId();
+        em.getEntityManager()
+                .createQuery("update Review r set r.createdAt = :createdAt where r.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", id)
+                .executeUpdate();
+        return id;
+    }
+
+    private static List<Long> ids(List<ReviewSummary> rows) {
+        return rows.stream().map(ReviewSummary::getId).toList();
+    }
+}
@@ -0,0 +1,207 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.entity.StorageOutbox.Operation;
+import kr.java.upload_exception.model.repository.BlobReferenceRepository;
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import kr.java.upload_exception.model.repository.StorageOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 내용 기반 저장 모드의 참조 수 (acquire/release → 0이 될 때만 파일 삭제)
+ *
+ * 참조 추가/예약이 MySQL upsert(on duplicate key update)라 H2를 MySQL 모드로 실행
+ * 처리기는 직접 만들어서 호출 (커밋 후 자동 실행 리스너 없이 처리 시점을 테스트가 정함)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:blob-reference;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "file.storage.content-addressed=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BlobReferenceService.class, StorageOutboxService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlobReferenceServiceTest {
+
+    private static final String KEY = "0f1e2d.jpg";
+
+    @Autowired
+    private BlobReferenceService blobReferenceService;
+
+    @Autowired
+    private StorageOutboxService storageOutboxService;
+
+    @Autowired
+    private BlobReferenceRepository blobReferenceRepository;
+
+    @Autowired
+    private StorageOutboxRepository storageOutboxRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private StorageOutboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new StorageOutboxProcessor(storageOutboxRepository, reviewRepository,
+                blobReferenceRepository, fileStorageService, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(processor, "batchSize", 1000);
+        ReflectionTestUtils.setField(processor, "contentAddressed", true);
+        when(fileStorageService.deleteAll(anyCollection())).thenReturn(Set.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageOutboxRepository.deleteAll();
+        blobReferenceRepository.deleteAll();
+    }
+
+    @Test
+    void acquireCountsEveryReviewAndConfirmsUpload() {
+        storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+
+        blobReferenceService.acquire(KEY);
+        blobReferenceService.acquireAll(List.of(KEY, KEY));
+
+        assertThat(blobReferenceRepository.findRefCount(KEY)).contains(3);
+        assertThat(storageOutboxRepository.existsByOperationAndObjectKey(Operation.PROMOTE, KEY)).isFalse();
+    }
+
+    @Test
+    void sharedBlobIsKeptWhileReferenced() {
+        blobReferenceService.acquire(KEY);
+        blobReferenceService.acquire(KEY);
+
+        blobReferenceService.release(KEY);
+        processor.processDue();
+
+        assertThat(blobReferenceRepository.findRefCount(KEY)).contains(1);
+        assertThat(storageOutboxRepository.count()).isZero();
+        verify(fileStorageService, never()).deleteAll(any());
+    }
+
+    @Test
+    void lastReleaseDeletesBlobWithVariantsAndReferenceRow() {
+        blobReferenceService.acquire(KEY);
+        blobReferenceService.acquire(KEY);
+        blobReferenceService.release(KEY);
+        processor.processDue();
+
+        blobReferenceService.release(KEY);
+        processor.processDue();
+
+        verify(fileStorageService).deleteAll(argThat(keys ->
+                keys.contains(KEY) && keys.containsAll(ImageVariant.derivedKeys(KEY))));
+        assertThat(blobReferenceRepository.findRefCount(KEY)).isEmpty();
+        assertThat(storageOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void releaseNeverGoesBelowZero() {
+        blobReferenceService.acquire(KEY);
+        blobReferenceService.release(KEY);
+        blobReferenceService.release(KEY);
+
+        assertThat(blobReferenceRepository.findRefCount(KEY)).contains(0);
+    }
+
+    @Test
+    void pendingUploadOfSameContentKeepsBlobAtZero() {
+        blobReferenceService.acquire(KEY);
+        // 같은 내용을 다른 요청이 방금 올림 (아직 리뷰 저장 전)
+        storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+
+        blobReferenceService.release(KEY);
+        processor.processDue();
+
+        verify(fileStorageService, never()).deleteAll(any());
+        assertThat(blobReferenceRepository.findRefCount(KEY)).contains(0);
+    }
+
+    @Test
+    void dedupUploadDuringDeletionWaitsUntilBlobIsGone() throws Exception {
+        blobReferenceService.acquire(KEY);
+        blobReferenceService.release(KEY);
+
+        // 처리기가 참조 행을 잠그고 파일을 지우는 도중에 멈춰 있게 함
+        CountDownLatch deleting = new CountDownLatch(1);
+        CountDownLatch finishDelete = new CountDownLatch(1);
+        AtomicBoolean blobExists = new AtomicBoolean(true);
+        when(fileStorageService.deleteAll(anyCollection())).thenAnswer(call -> {
+            deleting.countDown();
+            finishDelete.await(10, TimeUnit.SECONDS);
+            blobExists.set(false);
+            return Set.of();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> processing = executor.submit(processor::processDue);
+            assertThat(deleting.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // 같은 내용 업로드: 저장소가 파일이 있는지 보기 전에 예약 (FileStorageService.store)
+            Future<Boolean> upload = executor.submit(() -> {
+                storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+                return blobExists.get(); // true면 쓰기를 생략했을 것
+            });
+            Thread.sleep(500);
+            assertThat(upload.isDone()).isFalse(); // 삭제가 끝날 때까지 예약이 기다림
+
+            finishDelete.countDown();
+            processing.get(10, TimeUnit.SECONDS);
+            assertThat(upload.get(10, TimeUnit.SECONDS)).isFalse(); // 지워진 뒤에 확인 → 다시 씀
+        } finally {
+            executor.shutdownNow();
+        }
+        // 업로드의 확정 대기 기록은 삭제가 끝난 뒤에 커밋됨 (참조 행은 확정할 때 다시 생김)
+        assertThat(storageOutboxRepository.existsByOperationAndObjectKey(Operation.PROMOTE, KEY)).isTrue();
+        verify(fileStorageService).deleteAll(anyCollection());
+    }
+
+    @Test
+    void deletionAfterDedupUploadReservedKeepsBlob() {
+        blobReferenceService.acquire(KEY);
+        blobReferenceService.release(KEY);
+        // 처리기보다 업로드 예약이 먼저 커밋됨 → 처리기가 잠근 뒤 그 기록을 봄
+        storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+
+        processor.processDue();
+
+        verify(fileStorageService, never()).deleteAll(any());
+        assertThat(storageOutboxRepository.existsByOperationAndObjectKey(Operation.PROMOTE, KEY)).isTrue();
+    }
+}
@@ -0,0 +1,130 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.exception.InvalidFileTypeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 업로드 이미지 내용 검증 (매직 바이트, 헤더의 가로/세로 크기)
+ */
+class ImageContentValidatorTest {
+
+    private final ImageContentValidator validator = new ImageContentValidator(1000, 250_000);
+
+    @ParameterizedTest
+    @CsvSource({"jpg, image/jpeg, JPEG", "png, image/png, PNG", "gif, image/gif, GIF"})
+    void acceptsMatchingContent(String format, String contentType, ImageType expected) throws IOException {
+        byte[] image = encode(format, 40, 30);
+
+        ImageContentValidator.Validated validated = validator.validate(new ByteArrayInputStream(image), contentType);
+
+        assertThat(validated.type()).isEqualTo(expected);
+        // 앞부분을 되돌려 놓았으므로 처음부터 그대로 읽힘
+        assertThat(validated.stream().readAllBytes()).isEqualTo(image);
+    }
+
+    @Test
+    void acceptsWebpByHeader() throws IOException {
+        byte[] webp = webpExtended(640, 480);
+
+        assertThat(validator.validate(new ByteArrayInputStream(webp), "image/webp").type()).isEqualTo(ImageType.WEBP);
+    }
+
+    @Test
+    void rejectsUndeclaredTypeBeforeReading() {
+        assertThatThrownBy(() -> validator.validate(new ByteArrayInputStream(new byte[0]), "image/bmp"))
+                .isInstanceOf(InvalidFileTypeException.class)
+                .hasMessageContaining("허용되지 않는 파일 형식");
+    }
+
+    @Test
+    void rejectsContentThatIsNotAnImage() {
+        byte[] script = "<?php echo 'hello'; ?>".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> validator.validate(new ByteArrayInputStream(script), "image/png"))
+                .isInstanceOf(InvalidFileTypeException.class)
+                .hasMessage("이미지 파일이 아닙니다.");
+    }
+
+    @Test
+    void rejectsContentThatDoesNotMatchDeclaredType() throws IOException {
+        byte[] png = encode("png", 40, 30);
+
+        assertThatThrownBy(() -> validator.validate(new ByteArrayInputStream(png), "image/jpeg"))
+                .isInstanceOf(InvalidFileTypeException.class)
+                .hasMessageContaining("일치하지 않습니다");
+    }
+
+    @Test
+    void rejectsTruncatedHeader() {
+        byte[] head = {(byte) 0xFF, (byte) 0xD8};
+
+        assertThatThrownBy(() -> validator.validate(new ByteArrayInputStream(head), "image/jpeg"))
+                .isInstanceOf(InvalidFileTypeException.class);
+    }
+
+    @Test
+    void rejectsOversizedDimensionsFromHeader() throws IOException {
+        byte[] png = encode("png", 40, 30);
+        ByteBuffer.wrap(png).putInt(16, 50_000); // IHDR 가로만 조작 (본문은 작음)
+
+        assertThatThrownBy(() -> validator.validate(new ByteArrayInputStream(png), "image/png"))
+                .isInstanceOf(InvalidFileTypeException.class)
+                .hasMessageContaining("크기");
+        assertThatThrownBy(() -> validator.validate(new ByteArrayInputStream(webpExtended(5000, 10)), "image/webp"))
+                .isInstanceOf(InvalidFileTypeException.class)
+                .hasMessageContaining("크기");
+    }
+
+    @Test
+    void decodeChecksPixelCountBeforeDecoding() throws IOException {
+        // 가로/세로는 각각 허용 범위 안이지만 픽셀 수(600 x 600)가 초과 - JPEG는 업로드 때 확인하지 못하는 경우
+        byte[] jpeg = encode("jpg", 600, 600);
+
+        assertThatThrownBy(() -> validator.decode(new ByteArrayInputStream(jpeg)))
+                .isInstanceOf(InvalidFileTypeException.class)
+                .hasMessageContaining("600x600");
+        assertThat(validator.decode(new ByteArrayInputStream(encode("jpg", 400, 300))).getWidth()).isEqualTo(400);
+    }
+
+    @Test
+    void decodeReturnsNullForUnknownFormat() throws IOException {
+        assertThat(validator.decode(new ByteArrayInputStream("plain text".getBytes(StandardCharsets.UTF_8)))).isNull();
+    }
+
+    private static byte[] encode(String format, int width, int height) throws IOException {
+        // GIF는 팔레트 이미지로 (JPEG 인코더는 팔레트를 지원하지 않음)
+        int imageType = format.equals("gif") ? BufferedImage.TYPE_BYTE_INDEXED : BufferedImage.TYPE_INT_RGB;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(ImageIO.write(new BufferedImage(width, height, imageType), format, out)).isTrue();
+        return out.toByteArray();
+    }
+
+    // 'RIFF' 크기 'WEBP' 'VP8X' 청크 (캔버스 크기 24~29, 각 24비트 리틀엔디언, 실제 값 - 1)
+    private static byte[] webpExtended(int width, int height) {
+        ByteBuffer buffer = ByteBuffer.allocate(ImageContentValidator.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(22);
+        buffer.put("WEBP".getBytes(StandardCharsets.US_ASCII)).put("VP8X".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(10).putInt(0);
+        putUint24(buffer, width - 1);
+        putUint24(buffer, height - 1);
+        return buffer.array();
+    }
+
+    private static void putUint24(ByteBuffer buffer, int value) {
+        buffer.put((byte) value).put((byte) (value >> 8)).put((byte) (value >> 16));
+    }
+}
@@ -0,0 +1,62 @@
+package kr.java.upload_exception.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 로컬 저장소 여러 파일 삭제 (전용 풀에서 동시에, 실패한 키만 반환)
+ */
+class LocalFileStorageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ThreadPoolTaskExecutor deleteExecutor;
+    private LocalFileStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        deleteExecutor = new ThreadPoolTaskExecutor();
+        deleteExecutor.setCorePoolSize(4);
+        deleteExecutor.setMaxPoolSize(4);
+        deleteExecutor.initialize();
+        storage = new LocalFileStorageService(uploadDir.toString(), mock(ImageContentValidator.class),
+                new LocalFileMetadataCache(100), mock(StorageOutboxService.class), deleteExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteExecutor.shutdown();
+    }
+
+    @Test
+    void deleteAllRemovesEveryFileAndReturnsOnlyFailedKeys() throws IOException {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String key = String.format("%04x-image.jpg", i);
+            storage.storeAt(key, new ByteArrayInputStream(new byte[]{1}), 1, "image/jpeg");
+            keys.add(key);
+        }
+        // 비어 있지 않은 디렉토리는 지울 수 없음 → 삭제 실패
+        String stuck = "ffff-stuck.jpg";
+        Files.createDirectories(storage.shardedPath(stuck).resolve("child"));
+        keys.add(stuck);
+        keys.add("");
+
+        assertThat(storage.deleteAll(keys)).containsExactly(stuck);
+        assertThat(keys.subList(0, 50)).noneMatch(storage::exists);
+    }
+}
@@ -0,0 +1,44 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 검색 페이지 범위 (MAX_HITS 밖의 페이지는 빈 결과)
+ */
+class ReviewSearchIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private ReviewSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ReviewSearchIndex(mock(ReviewRepository.class), mock(CacheInvalidationBus.class),
+                indexDir.toString(), false, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void pageBeyondMaxHitsIsEmptyEvenWhenOffsetOverflows() {
+        // 20 * Integer.MAX_VALUE는 int 범위를 넘음
+        ReviewSearchIndex.Hits hits = index.search("리뷰", 1, Integer.MAX_VALUE, 20);
+
+        assertThat(hits.ids()).isEmpty();
+        assertThat(hits.hasNext()).isFalse();
+    }
+}
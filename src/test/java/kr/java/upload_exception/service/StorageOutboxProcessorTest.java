@@ -0,0 +1,170 @@
+package kr.java.upload_exception.service;
+
+import kr.java.upload_exception.model.entity.Review;
+import kr.java.upload_exception.model.entity.StorageOutbox;
+import kr.java.upload_exception.model.entity.StorageOutbox.Operation;
+import kr.java.upload_exception.model.repository.BlobReferenceRepository;
+import kr.java.upload_exception.model.repository.ReviewRepository;
+import kr.java.upload_exception.model.repository.StorageOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 저장소 작업 대기열 상태 전이 (재시도, 업로드 확정/폐기)
+ *
+ * 서비스 호출마다 실제처럼 커밋되도록 테스트 트랜잭션 없이 실행
+ * 처리기는 직접 만들어서 호출 (커밋 후 자동 실행 리스너 없이 처리 시점을 테스트가 정함)
+ */
+@DataJpaTest
+@Import(StorageOutboxService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StorageOutboxProcessorTest {
+
+    private static final String KEY = "a.jpg";
+
+    @Autowired
+    private StorageOutboxService storageOutboxService;
+
+    @Autowired
+    private StorageOutboxRepository storageOutboxRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private BlobReferenceRepository blobReferenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private StorageOutboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new StorageOutboxProcessor(storageOutboxRepository, reviewRepository,
+                blobReferenceRepository, fileStorageService, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(processor, "batchSize", 1000);
+        when(fileStorageService.getUrl(anyString())).thenAnswer(call -> "/images/" + call.getArgument(0));
+        when(fileStorageService.deleteAll(anyCollection())).thenReturn(Set.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageOutboxRepository.deleteAll();
+        reviewRepository.deleteAll();
+    }
+
+    @Test
+    void failedDeleteIsRetriedWithBackoffUntilItSucceeds() {
+        storageOutboxRepository.save(new StorageOutbox(Operation.DELETE, KEY, Instant.now()));
+        when(fileStorageService.deleteAll(anyCollection())).thenReturn(Set.of(KEY));
+
+        assertRetriedAfter(1, Duration.ofSeconds(30));
+
+        // 대기 중에는 다시 시도하지 않음
+        processor.processDue();
+        verify(fileStorageService, times(1)).deleteAll(anyCollection());
+
+        makeDue(Operation.DELETE);
+        assertRetriedAfter(2, Duration.ofMinutes(1));
+
+        when(fileStorageService.deleteAll(anyCollection())).thenReturn(Set.of());
+        makeDue(Operation.DELETE);
+        processor.processDue();
+
+        assertThat(storageOutboxRepository.count()).isZero();
+        assertThat(processor.getDeletedCount()).isEqualTo(1);
+        assertThat(processor.getFailedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void pendingPromotionWaitsForGracePeriod() {
+        storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+
+        processor.processDue();
+
+        verify(fileStorageService, never()).deleteAll(any());
+        assertThat(storageOutboxRepository.existsByOperationAndObjectKey(Operation.PROMOTE, KEY)).isTrue();
+    }
+
+    @Test
+    void confirmedPromotionIsRemovedWithoutTouchingStorage() {
+        storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+
+        storageOutboxService.confirmPromotion(KEY);
+        processor.processDue();
+
+        assertThat(storageOutboxRepository.count()).isZero();
+        verify(fileStorageService, never()).deleteAll(any());
+    }
+
+    @Test
+    void discardedPromotionDeletesOrphanAndVariants() {
+        storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+
+        storageOutboxService.discardPromotion(KEY);
+        processor.processDue();
+
+        verify(fileStorageService).deleteAll(argThat(keys ->
+                keys.contains(KEY) && keys.containsAll(ImageVariant.derivedKeys(KEY))));
+        assertThat(storageOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void expiredPromotionStillUsedByReviewIsKept() {
+        Review review = new Review();
+        review.setTitle("제목");
+        review.setContent("내용");
+        review.setRating(5);
+        review.setImageUrl("/images/" + KEY);
+        reviewRepository.save(review);
+        storageOutboxService.recordPendingPromotion(KEY, Duration.ZERO);
+
+        storageOutboxService.discardPromotion(KEY);
+        processor.processDue();
+
+        verify(fileStorageService, never()).deleteAll(any());
+        assertThat(storageOutboxRepository.count()).isZero();
+    }
+
+    private void assertRetriedAfter(int attempts, Duration backoff) {
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS); // DB에 저장하면서 잘리는 자릿수
+        processor.processDue();
+        Instant after = Instant.now();
+
+        StorageOutbox task = storageOutboxRepository.findAll().get(0);
+        assertThat(task.getAttempts()).isEqualTo(attempts);
+        assertThat(task.getNextAttemptAt()).isBetween(before.plus(backoff), after.plus(backoff));
+    }
+
+    private void makeDue(Operation operation) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                storageOutboxRepository.reschedule(operation, KEY, Instant.now()));
+    }
+}